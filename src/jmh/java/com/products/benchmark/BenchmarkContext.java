@@ -0,0 +1,66 @@
+package com.products.benchmark;
+
+import com.products.ProductsApplication;
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductBatchService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the application against an in-memory H2 database seeded with {@code tableSize} products.
+ */
+final class BenchmarkContext {
+    private BenchmarkContext() { }
+
+    static ConfigurableApplicationContext start(int tableSize, String... args) {
+        // devtools is on the test classpath; its restarter would re-run the caller's main method
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        String[] defaults = {
+                "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"
+        };
+        String[] all = new String[defaults.length + args.length];
+        System.arraycopy(defaults, 0, all, 0, defaults.length);
+        System.arraycopy(args, 0, all, defaults.length, args.length);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductsApplication.class).run(all);
+        context.getBean(ProductBatchService.class).createAll(products(1, tableSize));
+        return context;
+    }
+
+    static Iterator<Product> products(int first, int count) {
+        return IntStream.range(first, first + count).mapToObj(BenchmarkContext::product).iterator();
+    }
+
+    static Product product(int i) {
+        return new Product(name(i), "Description of product " + i + ".", category(i), (long) i, new BigDecimal(i % 1000 + ".99"));
+    }
+
+    static String name(int i) {
+        return "Product " + i;
+    }
+
+    static CategoryType category(int i) {
+        return CategoryType.values()[i % CategoryType.values().length];
+    }
+
+    /**
+     * A random existing row, ids and names are both 1-based.
+     */
+    static int randomRow(int tableSize) {
+        return ThreadLocalRandom.current().nextInt(1, tableSize + 1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.products.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load test comparing platform-thread and virtual-thread request handling.
+ * <p>
+ * Arguments: {@code concurrency requests [baseUrl]}. Without a base URL the application is
+ * booted on an embedded H2 database once per mode; with one, only that server is measured.
+ * Four out of five requests read a product by id, the rest read a page of a category.
+ */
+public final class ProductLoadTest {
+    private static final int TABLE_SIZE = 10_000;
+
+    private ProductLoadTest() { }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        if (args.length > 2) {
+            print(args[2], run(args[2], concurrency, requests));
+            return;
+        }
+
+        measure("platform", concurrency, requests, "--spring.threads.virtual.enabled=false");
+        if (Runtime.version().feature() >= 21) {
+            measure("virtual", concurrency, requests, "--spring.profiles.active=virtual-threads");
+        } else {
+            System.out.println("virtual: skipped, needs a Java 21 runtime (mvn -Pjava21)");
+        }
+    }
+
+    private static void measure(String mode, int concurrency, int requests, String... args) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(TABLE_SIZE, args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+
+            run(baseUrl, concurrency, requests / 5);
+            print(mode, run(baseUrl, concurrency, requests));
+        }
+    }
+
+    private static Result run(String baseUrl, int concurrency, int requests) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        long[] latencies = new long[requests];
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+
+            client.sendAsync(HttpRequest.newBuilder(URI.create(baseUrl + path(i))).build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() >= 500 && response.statusCode() != 503) {
+                            failed.incrementAndGet();
+                        } else if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        }
+                        inFlight.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(requests, elapsed, latencies[requests / 2], latencies[(int) (requests * 0.99)],
+                rejected.get(), failed.get());
+    }
+
+    private static String path(int i) {
+        int row = BenchmarkContext.randomRow(TABLE_SIZE);
+        if (i % 5 == 4) {
+            return "/products?limit=100&category=" + BenchmarkContext.category(row);
+        }
+        return "/products/" + row;
+    }
+
+    private static void print(String mode, Result result) {
+        System.out.printf("%-10s %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  503 %6d  failed %6d%n",
+                mode,
+                result.requests() / (result.elapsedNanos() / 1e9),
+                result.p50Nanos() / 1e6,
+                result.p99Nanos() / 1e6,
+                result.rejected(),
+                result.failed());
+    }
+
+    private record Result(int requests, long elapsedNanos, long p50Nanos, long p99Nanos, int rejected, int failed) {
+        Result {
+            if (elapsedNanos <= 0) {
+                elapsedNanos = TimeUnit.MILLISECONDS.toNanos(1);
+            }
+        }
+    }
+}
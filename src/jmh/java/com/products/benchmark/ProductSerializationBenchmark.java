@@ -0,0 +1,85 @@
+package com.products.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.products.domain.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of product lists in each wire format, configured like the application's mappers.
+ * Bytes on the wire, plain and gzip-compressed, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSerializationBenchmark {
+    private static final TypeReference<List<Product>> LIST = new TypeReference<>() { };
+
+    @Param({ "10", "100", "1000" })
+    private int listSize;
+
+    @Param({ "json", "smile", "cbor" })
+    private String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Product> products;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = mapper.writerFor(LIST);
+        reader = mapper.readerFor(LIST);
+
+        products = new ArrayList<>(listSize);
+        for (int i = 1; i <= listSize; i++) {
+            Product product = BenchmarkContext.product(i);
+            product.setId((long) i);
+            products.add(product);
+        }
+
+        serialized = writer.writeValueAsBytes(products);
+        System.out.printf("%n%s, %d products: %d bytes, %d bytes gzip%n", format, listSize, serialized.length, gzip(serialized).length);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return writer.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public List<Product> deserializeList() throws IOException {
+        return reader.readValue(serialized);
+    }
+
+    @Benchmark
+    public byte[] serializeListGzip() throws IOException {
+        return gzip(writer.writeValueAsBytes(products));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
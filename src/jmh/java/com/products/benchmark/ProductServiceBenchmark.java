@@ -0,0 +1,112 @@
+package com.products.benchmark;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductCache;
+import com.products.domain.ProductField;
+import com.products.domain.ProductPage;
+import com.products.domain.ProductService;
+import com.products.domain.ProductView;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ProductService hot paths against an embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+    private static final Set<ProductField> PAGE_FIELDS = ProductField.parse("name,price");
+
+    @Param({ "1000", "100000" })
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private AtomicInteger nextRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(tableSize);
+        service = context.getBean(ProductService.class);
+        nextRow = new AtomicInteger(tableSize + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Mostly cache hits: at {@code tableSize=1000} every row fits in the 10000-entry {@code ProductCache},
+     * so after warmup no call reaches H2; at 100000 about one call in ten is a hit.
+     */
+    @Benchmark
+    public Optional<Product> getCached() {
+        return service.get((long) BenchmarkContext.randomRow(tableSize));
+    }
+
+    @Benchmark
+    public Optional<Product> getByNameCached() {
+        return service.getByName(BenchmarkContext.name(BenchmarkContext.randomRow(tableSize)));
+    }
+
+    /**
+     * Cache misses, read from H2.
+     */
+    @Benchmark
+    public Optional<Product> get(ColdCaches caches) {
+        return service.get((long) BenchmarkContext.randomRow(tableSize));
+    }
+
+    @Benchmark
+    public Optional<Product> getByName(ColdCaches caches) {
+        return service.getByName(BenchmarkContext.name(BenchmarkContext.randomRow(tableSize)));
+    }
+
+    @Benchmark
+    public List<Product> listByNameAndCategory() {
+        int row = BenchmarkContext.randomRow(tableSize);
+        return service.list(BenchmarkContext.name(row).toUpperCase(), BenchmarkContext.category(row));
+    }
+
+    @Benchmark
+    public ProductPage<Product> listCategoryPage() {
+        CategoryType category = BenchmarkContext.category(BenchmarkContext.randomRow(tableSize));
+        return service.list(null, category, null, 100);
+    }
+
+    @Benchmark
+    public ProductPage<ProductView> listCategoryPageFields() {
+        CategoryType category = BenchmarkContext.category(BenchmarkContext.randomRow(tableSize));
+        return service.list(null, category, PAGE_FIELDS, null, 100);
+    }
+
+    @Benchmark
+    public Product create() {
+        return service.create(BenchmarkContext.product(nextRow.getAndIncrement()));
+    }
+
+    /**
+     * Empties the product cache and Hibernate's second-level cache before every call.
+     */
+    @State(Scope.Thread)
+    public static class ColdCaches {
+        @Setup(Level.Invocation)
+        public void evict(ProductServiceBenchmark benchmark) {
+            benchmark.context.getBean(ProductCache.class).evictAll();
+            benchmark.context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.products.benchmark;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start benchmark: launches the packaged application in a fresh JVM and measures the time from
+ * process start to the first successful {@code GET /products/1}.
+ * <p>
+ * Arguments: {@code [runs] [targetDirectory]}. Every run of each mode gets its own JVM:
+ * <ul>
+ *     <li>{@code jar}: the executable jar, as deployed today</li>
+ *     <li>{@code extracted}: the jar extracted by {@code -Pfast-startup}, without AOT</li>
+ *     <li>{@code deferred}: extracted, with the {@code fast-startup} Spring profile</li>
+ *     <li>{@code aot}: extracted, with the AOT-processed context</li>
+ *     <li>{@code aot+cds}: extracted, AOT-processed, with the AppCDS archive from the training run</li>
+ * </ul>
+ * {@code jar} needs {@code mvn package} first and the others {@code mvn -Pfast-startup package}, built
+ * with the JVM running the benchmark. The application uses an H2 file database seeded with one product; H2 is appended to its classpath.
+ */
+public final class StartupBenchmark {
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() { }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path target = Path.of(args.length > 1 ? args[1] : "target").toAbsolutePath().normalize();
+
+        Path jar = executableJar(target);
+        Path extracted = target.resolve("fast-startup").resolve(jar.getFileName());
+        Path archive = target.resolve("fast-startup").resolve("application.jsa");
+        Path h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path work = Files.createTempDirectory("products-startup");
+        String database = "jdbc:h2:file:" + work.resolve("products");
+        seed(database);
+
+        Launch plain = new Launch("jar", List.of("-cp", classpath(jar, h2), "org.springframework.boot.loader.launch.JarLauncher"));
+        Launch unpacked = new Launch("extracted", List.of("-cp", classpath(extracted, h2), "com.products.ProductsApplication"));
+        Launch deferred = unpacked.named("deferred").with("-Dspring.profiles.active=fast-startup");
+        Launch aot = deferred.named("aot").with("-Dspring.aot.enabled=true");
+        Launch cds = aot.named("aot+cds").with("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off");
+
+        // Untimed: lets Hibernate create the remaining tables and warms the file system cache
+        plain.start(database, work);
+
+        measure(plain, runs, database, work);
+        for (Launch launch : List.of(unpacked, deferred, aot, cds)) {
+            if (!Files.exists(extracted) || launch == cds && !Files.exists(archive)) {
+                System.out.printf("%-10s skipped, build with mvn -Pfast-startup package%n", launch.name());
+            } else {
+                measure(launch, runs, database, work);
+            }
+        }
+    }
+
+    private static void measure(Launch launch, int runs, String database, Path work) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = launch.start(database, work);
+        }
+
+        Arrays.sort(millis);
+        System.out.printf("%-10s first GET /products/1  min %6d ms  median %6d ms  max %6d ms%n",
+                launch.name(), millis[0], millis[runs / 2], millis[runs - 1]);
+    }
+
+    private static Path executableJar(Path target) throws IOException {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().matches("products-.*(?<!-plain)\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("no executable jar in " + target + ", run mvn package first"));
+        }
+    }
+
+    private static void seed(String database) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(database, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("products_schema.sql")).execute(dataSource);
+        new JdbcTemplate(dataSource).update("INSERT INTO products (id, name, description, category, quantity, price) "
+                + "VALUES (1, 'Product 1', 'Description of product 1.', 'SPORT', 1, 1.99)");
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+    }
+
+    private static String classpath(Path... entries) {
+        return String.join(File.pathSeparator, Stream.of(entries).map(Path::toString).toList());
+    }
+
+    private record Launch(String name, List<String> jvmArgs) {
+
+        Launch named(String name) {
+            return new Launch(name, jvmArgs);
+        }
+
+        /**
+         * JVM options go in front of the classpath and main class.
+         */
+        Launch with(String... options) {
+            List<String> args = new ArrayList<>(List.of(options));
+            args.addAll(jvmArgs);
+            return new Launch(name, args);
+        }
+
+        /**
+         * Starts the application, waits for its first successful read and stops it.
+         *
+         * @return milliseconds from process start to the first {@code 200} response
+         */
+        long start(String database, Path work) throws Exception {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmArgs);
+            command.addAll(List.of(
+                    "--spring.datasource.url=" + database,
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--server.port=" + port,
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN"));
+            File log = work.resolve(name.replace('+', '-') + ".log").toFile();
+
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products/1")).build();
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+            try {
+                while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + log);
+                    }
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        }
+                    } catch (ConnectException notListening) {
+                        // not up yet
+                    }
+                    Thread.sleep(5);
+                }
+                throw new IllegalStateException(name + " not serving after " + TIMEOUT + ", see " + log);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+    }
+}
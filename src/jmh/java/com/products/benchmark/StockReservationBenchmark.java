@@ -0,0 +1,69 @@
+package com.products.benchmark;
+
+import com.products.domain.InsufficientStockException;
+import com.products.domain.Product;
+import com.products.domain.ProductRepository;
+import com.products.domain.StockAllotments;
+import com.products.domain.StockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contended reservations on a single hot product. Every trial checks that units reserved plus units
+ * left add up to the starting stock, so a run that oversells fails instead of reporting a score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StockReservationBenchmark {
+    private static final long STOCK = 10_000_000L;
+
+    @Param({ "false", "true" })
+    private boolean allotments;
+
+    private ConfigurableApplicationContext context;
+    private StockService service;
+    private ProductRepository repository;
+    private Long id;
+    private final AtomicLong reserved = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(0, "--products.reservations.allotments.enabled=" + allotments);
+        service = context.getBean(StockService.class);
+        repository = context.getBean(ProductRepository.class);
+
+        Product hot = BenchmarkContext.product(1);
+        hot.setQuantity(STOCK);
+        id = repository.save(hot).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBeanProvider(StockAllotments.class).ifAvailable(StockAllotments::flush);
+        long left = repository.findById(id).orElseThrow().getQuantity();
+        context.close();
+
+        if (reserved.get() + left != STOCK) {
+            throw new IllegalStateException("Oversold: reserved " + reserved.get() + ", left " + left + ", stock " + STOCK);
+        }
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        try {
+            service.reserve(id, 1);
+            reserved.incrementAndGet();
+            return true;
+        } catch (InsufficientStockException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.products.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread's reads as needing the primary, for read-your-writes right after a write,
+ * and tells a listener when the current thread has committed a write.
+ */
+public final class PrimaryPin {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+    private static final ThreadLocal<Runnable> WRITE_LISTENER = new ThreadLocal<>();
+
+    private PrimaryPin() { }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    /**
+     * Runs {@code action} with its reads on the primary, leaving an outer pin in place.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPinned()) {
+            return action.get();
+        }
+
+        pin();
+        try {
+            return action.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    /**
+     * Carries the current thread's pin over to {@code task}, for work handed to another thread.
+     */
+    public static Runnable propagate(Runnable task) {
+        if (!isPinned()) {
+            return task;
+        }
+
+        return () -> onPrimary(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code listener} whenever a write of the current thread commits, until {@link #stopListening()}.
+     */
+    public static void listenForWrites(Runnable listener) {
+        WRITE_LISTENER.set(listener);
+    }
+
+    public static void stopListening() {
+        WRITE_LISTENER.remove();
+    }
+
+    /**
+     * A write of the current thread has committed, possibly on another thread that it waited for.
+     */
+    public static void written() {
+        Runnable listener = WRITE_LISTENER.get();
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * The current read-write transaction is about to write; {@link #written()} follows once it commits.
+     */
+    static void writing() {
+        if (WRITE_LISTENER.get() == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                written();
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.products.datasource;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.products.domain.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for {@link Product}: entities by id and name to id resolutions,
+ * each in a bounded Caffeine region behind JCache. Cached entries follow Hibernate's
+ * {@code READ_WRITE} strategy, so they are replaced or invalidated when the writing transaction
+ * completes; JDBC writes evict the products they change ({@link com.products.domain.ProductSecondLevelCache}).
+ * <p>
+ * Without this configuration {@code application.properties} keeps the cache off; otherwise Hibernate
+ * would find {@code hibernate-jcache} on the classpath and create unbounded regions by itself.
+ * <p>
+ * Off with read replicas: reads routed to a replica would cache replica rows, which cache misses that
+ * must load from the primary would then be served.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("${products.hibernate-cache.enabled:true} and !${products.replicas.enabled:false}")
+public class SecondLevelCacheConfiguration {
+
+    /**
+     * Created from a provider of its own rather than {@code Caching}'s JVM-wide default manager,
+     * so every application context gets its own regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${products.hibernate-cache.products.maximum-size:10000}") long productsSize,
+            @Value("${products.hibernate-cache.product-names.maximum-size:10000}") long namesSize,
+            @Value("${products.hibernate-cache.ttl:PT5M}") Duration ttl) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        cacheManager.createCache(Product.CACHE_REGION, region(productsSize, ttl));
+        cacheManager.createCache(Product.NAME_CACHE_REGION, region(namesSize, ttl));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * {@code products.hibernate.cache.hit.ratio} per region, next to Hibernate's own
+     * {@code hibernate.second.level.cache.requests} counters. Needs {@code hibernate.generate_statistics}.
+     * The statistics are looked up on the first scrape, so binding does not wait for a deferred JPA bootstrap.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatios(EntityManagerFactory entityManagerFactory) {
+        SingletonSupplier<Statistics> statistics =
+                SingletonSupplier.of(() -> entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+        return registry -> {
+            for (String region : List.of(Product.CACHE_REGION, Product.NAME_CACHE_REGION)) {
+                Gauge.builder("products.hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats.obtain(), region))
+                        .tag("region", region)
+                        .strongReference(true)
+                        .register(registry);
+            }
+        };
+    }
+
+    static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+        long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / requests;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+    }
+}
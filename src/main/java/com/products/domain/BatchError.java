@@ -0,0 +1,16 @@
+package com.products.domain;
+
+/**
+ * A product of a batch that was not created, by its position in the request.
+ */
+public record BatchError(int index, String name, Reason reason, String message) {
+    public enum Reason {
+        MALFORMED,
+        INVALID,
+        CONFLICT,
+        /**
+         * The input cannot be read from this index on, such as after a syntax error.
+         */
+        UNREADABLE
+    }
+}
@@ -0,0 +1,11 @@
+package com.products.domain;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk creation. {@code failed} counts every item that was not created, while {@code errors}
+ * holds at most {@code products.batch.max-errors} of them, plus the one that ended unreadable input.
+ * {@code truncated} means the input could not be read to its end; the products before that point are created.
+ */
+public record BatchResult(int created, int failed, List<BatchError> errors, boolean truncated) {
+}
@@ -0,0 +1,10 @@
+package com.products.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Count, price range and stock of the products in one category.
+ */
+public record CategoryFacet(CategoryType category, long count, BigDecimal minPrice, BigDecimal maxPrice,
+                            BigDecimal avgPrice, long totalQuantity) {
+}
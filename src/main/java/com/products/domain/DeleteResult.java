@@ -0,0 +1,4 @@
+package com.products.domain;
+
+public record DeleteResult(int deleted) {
+}
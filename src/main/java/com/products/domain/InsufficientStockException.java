@@ -0,0 +1,10 @@
+package com.products.domain;
+
+/**
+ * A reservation asked for more units than the product has in stock.
+ */
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(Long id, long amount) {
+        super("Product " + id + " has fewer than " + amount + " units in stock");
+    }
+}
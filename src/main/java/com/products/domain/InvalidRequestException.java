@@ -0,0 +1,14 @@
+package com.products.domain;
+
+/**
+ * Client input is out of range or malformed, such as a paging cursor, a page size or a field name.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
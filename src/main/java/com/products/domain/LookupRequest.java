@@ -0,0 +1,14 @@
+package com.products.domain;
+
+import java.util.List;
+
+/**
+ * Ids and names to resolve in one call; either list may be omitted.
+ */
+public record LookupRequest(List<Long> ids, List<String> names) {
+
+    public LookupRequest {
+        ids = ids == null ? List.of() : ids;
+        names = names == null ? List.of() : names;
+    }
+}
@@ -0,0 +1,11 @@
+package com.products.domain;
+
+/**
+ * A single item of a bulk upload could not be read; the items around it still can.
+ */
+public class MalformedProductException extends InvalidRequestException {
+
+    public MalformedProductException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,24 +1,50 @@
 package com.products.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.products.jacoco.ExcludeFromJacocoGeneratedReport;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_key", columnList = "name_key, category"),
+        @Index(name = "idx_products_category", columnList = "category")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+@NaturalIdCache(region = Product.NAME_CACHE_REGION)
 public class Product {
+    /**
+     * Second-level cache regions for products by id and for name to id resolutions.
+     */
+    public static final String CACHE_REGION = "products";
+    public static final String NAME_CACHE_REGION = "product-names";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotEmpty
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String name;
 
+    /**
+     * Lower-cased name maintained by the database, so case-insensitive filters can use an index.
+     */
+    @JsonIgnore
+    @Column(name = "name_key", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(name))")
+    private String nameKey;
+
     @NotEmpty
     @Column(nullable = false)
     private String description;
@@ -36,6 +62,15 @@ public class Product {
     @Column(nullable = false, precision = 38, scale = 2)
     private BigDecimal price;
 
+    /**
+     * Optimistic lock version, published as the product's ETag.
+     */
+    @JsonIgnore
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Product() { }
 
     public Product(String name, CategoryType category) {
@@ -108,6 +143,14 @@ public class Product {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @ExcludeFromJacocoGeneratedReport
     @Override
     public String toString() {
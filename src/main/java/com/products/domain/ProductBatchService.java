@@ -0,0 +1,195 @@
+package com.products.domain;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates products in bulk through JDBC batches of {@code products.batch.size} rows.
+ * <p>
+ * Only one chunk is held in memory at a time. Unreadable items ({@link MalformedProductException}
+ * from the iterator), invalid products, products whose name is already taken and products the
+ * database rejects for any other constraint are reported by index while the rest of the batch goes on; all of them are counted, but only the first
+ * {@code products.batch.max-errors} are kept. Any other {@link InvalidRequestException} from the
+ * iterator means the input cannot be read any further: the chunks before it stay committed and the
+ * result is marked truncated.
+ */
+@Service
+public class ProductBatchService {
+    private static final String CONFLICT_MESSAGE = "Product name already exists";
+    private static final String REJECTED_MESSAGE = "Product violates a database constraint";
+
+    private final ProductJdbcRepository jdbcRepository;
+    private final ProductCache cache;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @Autowired
+    public ProductBatchService(ProductJdbcRepository jdbcRepository, ProductCache cache, Validator validator,
+                               ApplicationEventPublisher events, @Value("${products.batch.size:500}") int batchSize,
+                               @Value("${products.batch.max-errors:100}") int maxErrors) {
+        this.jdbcRepository = jdbcRepository;
+        this.cache = cache;
+        this.validator = validator;
+        this.events = events;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public BatchResult createAll(Iterator<Product> products) {
+        return createAll(products, maxErrors);
+    }
+
+    /**
+     * Like {@link #createAll(Iterator)}, keeping up to {@code maxErrors} errors.
+     */
+    public BatchResult createAll(Iterator<Product> products, int maxErrors) {
+        List<Product> chunk = new ArrayList<>(batchSize);
+        List<Integer> positions = new ArrayList<>(batchSize);
+        Errors errors = new Errors(maxErrors);
+        int created = 0;
+        boolean truncated = false;
+
+        for (int index = 0; ; index++) {
+            Product product;
+            try {
+                if (!products.hasNext()) {
+                    break;
+                }
+                product = products.next();
+            } catch (MalformedProductException ex) {
+                errors.add(new BatchError(index, null, BatchError.Reason.MALFORMED, ex.getMessage()));
+                continue;
+            } catch (InvalidRequestException ex) {
+                errors.end(new BatchError(index, null, BatchError.Reason.UNREADABLE, ex.getMessage()));
+                truncated = true;
+                break;
+            }
+
+            Set<ConstraintViolation<Product>> violations = validator.validate(product);
+
+            if (violations.isEmpty()) {
+                chunk.add(product);
+                positions.add(index);
+            } else {
+                errors.add(new BatchError(index, product.getName(), BatchError.Reason.INVALID, describe(violations)));
+            }
+
+            if (chunk.size() == batchSize) {
+                created += flush(chunk, positions, errors);
+                chunk.clear();
+                positions.clear();
+            }
+        }
+
+        created += flush(chunk, positions, errors);
+        return new BatchResult(created, errors.failed, errors.kept, truncated);
+    }
+
+    private int flush(List<Product> chunk, List<Integer> positions, Errors errors) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> taken = jdbcRepository.findExistingNames(chunk.stream().map(Product::getName).toList())
+                .stream()
+                .map(ProductFilter::normalize)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<Product> accepted = new ArrayList<>(chunk.size());
+        List<Integer> acceptedPositions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Product product = chunk.get(i);
+            if (taken.add(ProductFilter.normalize(product.getName()))) {
+                accepted.add(product);
+                acceptedPositions.add(positions.get(i));
+            } else {
+                errors.add(conflict(positions.get(i), product));
+            }
+        }
+
+        try {
+            jdbcRepository.insertAll(accepted);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent writer took one of the names after the check, or a row broke another
+            // constraint: the chunk was rolled back, so insert it row by row to find out which ones.
+            accepted = insertOneByOne(accepted, acceptedPositions, errors);
+        }
+
+        accepted.forEach(product -> {
+            cache.evict(product.getId(), product.getName());
+            events.publishEvent(new ProductChange.Created(product));
+        });
+        return accepted.size();
+    }
+
+    private List<Product> insertOneByOne(List<Product> products, List<Integer> positions, Errors errors) {
+        List<Product> inserted = new ArrayList<>(products.size());
+
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            try {
+                jdbcRepository.insertAll(List.of(product));
+                inserted.add(product);
+            } catch (DuplicateKeyException ex) {
+                errors.add(conflict(positions.get(i), product));
+            } catch (DataIntegrityViolationException ex) {
+                errors.add(new BatchError(positions.get(i), product.getName(), BatchError.Reason.INVALID, REJECTED_MESSAGE));
+            }
+        }
+
+        return inserted;
+    }
+
+    private static BatchError conflict(int index, Product product) {
+        return new BatchError(index, product.getName(), BatchError.Reason.CONFLICT, CONFLICT_MESSAGE);
+    }
+
+    private static String describe(Set<ConstraintViolation<Product>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Counts every error but keeps only the first {@code max}, so a large input cannot fill the heap with them.
+     */
+    private static final class Errors {
+        private final int max;
+        private final List<BatchError> kept = new ArrayList<>();
+        private int failed;
+
+        Errors(int max) {
+            this.max = max;
+        }
+
+        void add(BatchError error) {
+            failed++;
+            if (kept.size() < max) {
+                kept.add(error);
+            }
+        }
+
+        /**
+         * The error that ended the input, kept even past {@code max}.
+         */
+        void end(BatchError error) {
+            kept.add(error);
+        }
+    }
+}
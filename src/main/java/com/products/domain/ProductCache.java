@@ -0,0 +1,120 @@
+package com.products.domain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for single product lookups.
+ * <p>
+ * Products are held by id; names only map to an id, so removing a product
+ * never needs to know its name. Misses are cached too and loads of the same
+ * key are collapsed into a single repository call.
+ */
+@Component
+public class ProductCache {
+    private final Cache<Long, Optional<Product>> byId;
+    private final Cache<String, Optional<Long>> byName;
+
+    @Autowired
+    public ProductCache(@Value("${products.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${products.cache.ttl:PT5M}") Duration ttl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Product> getById(Long id, Function<Long, Optional<Product>> loader) {
+        if (id == null) {
+            return loader.apply(null);
+        }
+
+        return byId.get(id, loader);
+    }
+
+    public Optional<Product> getByName(String name,
+                                       Function<String, Optional<Product>> loader,
+                                       Function<Long, Optional<Product>> idLoader) {
+        AtomicReference<Product> loaded = new AtomicReference<>();
+        Optional<Long> id = byName.get(ProductFilter.normalize(name), key -> {
+            Optional<Product> product = loader.apply(name);
+            if (product.isEmpty()) {
+                return Optional.empty();
+            }
+
+            loaded.set(product.get());
+            Long productId = product.get().getId();
+            if (productId == null) {
+                return null;
+            }
+
+            byId.put(productId, product);
+            return Optional.of(productId);
+        });
+
+        if (loaded.get() != null) {
+            return Optional.of(loaded.get());
+        }
+
+        return id.flatMap(value -> getById(value, idLoader));
+    }
+
+    /**
+     * The cached product with this id, without loading it.
+     */
+    public Optional<Product> peek(Long id) {
+        Optional<Product> cached = id == null ? null : byId.getIfPresent(id);
+        return cached == null ? Optional.empty() : cached;
+    }
+
+    public void evict(ProductChange change) {
+        if (change instanceof ProductChange.Created created) {
+            evict(created.product().getId(), created.product().getName());
+        } else if (change instanceof ProductChange.Removed removed) {
+            evict(removed.id());
+        } else if (change instanceof ProductChange.CategoryRemoved) {
+            evictAll();
+        }
+    }
+
+    public void evict(Long id, String name) {
+        evict(id);
+        if (name != null) {
+            byName.invalidate(ProductFilter.normalize(name));
+        }
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+    }
+
+    public void evictAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+    }
+
+    public CacheStats idStats() {
+        return byId.stats();
+    }
+
+    public CacheStats nameStats() {
+        return byName.stats();
+    }
+}
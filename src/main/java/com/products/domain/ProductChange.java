@@ -0,0 +1,18 @@
+package com.products.domain;
+
+/**
+ * Published by product writes, for in-process read models to follow.
+ * <p>
+ * Single writes and deletes publish inside their transaction; {@link ProductBatchService} publishes
+ * a chunk's creations after the chunk has committed, outside any transaction. Listeners therefore use
+ * {@code @TransactionalEventListener(fallbackExecution = true)}: they see the first kind once the
+ * transaction has committed and the second kind straight away.
+ */
+public sealed interface ProductChange {
+
+    record Created(Product product) implements ProductChange { }
+
+    record Removed(Long id) implements ProductChange { }
+
+    record CategoryRemoved(CategoryType category) implements ProductChange { }
+}
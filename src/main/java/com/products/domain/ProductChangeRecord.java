@@ -0,0 +1,21 @@
+package com.products.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * A committed {@link ProductChange} as stored in the outbox, numbered by its outbox row id.
+ * <p>
+ * {@code product} is set for creations, {@code category} for creations and category removals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductChangeRecord(long sequence, Type type, Long productId, CategoryType category, Product product,
+                                  Instant occurredAt) {
+
+    public enum Type {
+        CREATED,
+        REMOVED,
+        CATEGORY_REMOVED
+    }
+}
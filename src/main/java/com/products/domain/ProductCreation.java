@@ -0,0 +1,15 @@
+package com.products.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * State of a creation accepted by {@link ProductWriteBehind}, looked up by its tracking id.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductCreation(String trackingId, State state, Product product, String error) {
+    public enum State {
+        PENDING,
+        CREATED,
+        FAILED
+    }
+}
@@ -0,0 +1,44 @@
+package com.products.domain;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Selectable product fields of a sparse fieldset ({@code fields=name,price}), with their columns.
+ * The id is always selected.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    CATEGORY("category"),
+    QUANTITY("quantity"),
+    PRICE("price");
+
+    private final String column;
+
+    ProductField(String column) {
+        this.column = column;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public static Set<ProductField> parse(String fields) {
+        Set<ProductField> parsed = EnumSet.of(ID);
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                parsed.add(valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidRequestException("Unknown product field: " + trimmed);
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,38 @@
+package com.products.domain;
+
+import java.util.Locale;
+
+/**
+ * Name/category filter of a product listing.
+ * <p>
+ * Every combination maps to one fixed query shape, so statements are parsed and
+ * prepared once, and names are compared through the indexed {@code name_key}
+ * column instead of {@code lower(name)}.
+ */
+public record ProductFilter(String nameKey, CategoryType category) {
+    public enum Shape {
+        ALL,
+        NAME,
+        CATEGORY,
+        NAME_AND_CATEGORY
+    }
+
+    public static ProductFilter of(String name, CategoryType category) {
+        return new ProductFilter(name == null ? null : normalize(name), category);
+    }
+
+    /**
+     * Case-insensitive form of a product name, matching the {@code name_key} column.
+     */
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public Shape shape() {
+        if (nameKey == null) {
+            return category == null ? Shape.ALL : Shape.CATEGORY;
+        }
+
+        return category == null ? Shape.NAME : Shape.NAME_AND_CATEGORY;
+    }
+}
@@ -0,0 +1,287 @@
+package com.products.domain;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access for the paths where managed entities get in the way. Writes evict what they
+ * changed from the second-level cache themselves ({@link ProductSecondLevelCache}).
+ */
+@Repository
+public class ProductJdbcRepository {
+    static final RowMapper<Product> ROW_MAPPER = (rs, rowNum) -> {
+        Product product = new Product(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                CategoryType.valueOf(rs.getString("category")),
+                rs.getLong("quantity"),
+                rs.getBigDecimal("price"));
+        product.setVersion(rs.getLong("version"));
+        return product;
+    };
+
+    private static final String SELECT = "SELECT id, name, description, category, quantity, price, version FROM products";
+    private static final String SELECT_FACETS =
+            "SELECT category, COUNT(*), MIN(price), MAX(price), AVG(price), SUM(quantity) FROM products";
+    private static final Map<ProductFilter.Shape, String> WHERE = new EnumMap<>(Map.of(
+            ProductFilter.Shape.ALL, "",
+            ProductFilter.Shape.NAME, " WHERE name_key = ?",
+            ProductFilter.Shape.CATEGORY, " WHERE category = ?",
+            ProductFilter.Shape.NAME_AND_CATEGORY, " WHERE name_key = ? AND category = ?"));
+    static final int IN_CHUNK_SIZE = 500;
+
+    private static final String INSERT =
+            "INSERT INTO products (name, description, category, quantity, price, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedTemplate;
+    private final JdbcTemplate cursorTemplate;
+    private final ProductOutbox outbox;
+    private final ProductSecondLevelCache secondLevelCache;
+
+    @Autowired
+    public ProductJdbcRepository(DataSource dataSource, ProductOutbox outbox, ProductSecondLevelCache secondLevelCache,
+                                 @Value("${products.stream.fetch-size:500}") int fetchSize) {
+        this.outbox = outbox;
+        this.secondLevelCache = secondLevelCache;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Inserts all products as one JDBC batch in a single transaction, together with their outbox rows,
+     * and sets their generated ids. On MySQL, {@code rewriteBatchedStatements=true} turns the batch
+     * into multi-row inserts.
+     */
+    @Transactional
+    public void insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Product product = products.get(i);
+                        ps.setString(1, product.getName());
+                        ps.setString(2, product.getDescription());
+                        ps.setString(3, product.getCategory().name());
+                        ps.setLong(4, product.getQuantity());
+                        ps.setBigDecimal(5, product.getPrice());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return products.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < products.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            products.get(i).setId(id.longValue());
+            products.get(i).setVersion(0L);
+        }
+        outbox.append(products.stream().map(ProductChange.Created::new).toList());
+    }
+
+    /**
+     * Deletes the products with the given ids. Only these products and their names are evicted from the
+     * second-level cache; a JPQL bulk delete would make Hibernate drop the whole regions. The rows are
+     * locked as they are read, so the returned ids are exactly the ones deleted. A single id with the
+     * cache off needs no names, so it is deleted without reading it first.
+     *
+     * @return the ids of the deleted products; ids that did not exist are left out
+     */
+    @Transactional
+    public List<Long> deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() == 1 && !secondLevelCache.isEnabled()) {
+            Long id = ids.iterator().next();
+            return jdbcTemplate.update("DELETE FROM products WHERE id = ?", id) == 0 ? List.of() : List.of(id);
+        }
+
+        List<Long> deleted = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        namedTemplate.query("SELECT id, name FROM products WHERE id IN (:ids) FOR UPDATE", Map.of("ids", ids), rs -> {
+            deleted.add(rs.getLong("id"));
+            names.add(rs.getString("name"));
+        });
+        if (deleted.isEmpty()) {
+            return deleted;
+        }
+        namedTemplate.update("DELETE FROM products WHERE id IN (:ids)", Map.of("ids", deleted));
+        secondLevelCache.evictAfterCommit(deleted, names);
+        return deleted;
+    }
+
+    /**
+     * Takes {@code amount} units in one conditional statement; nothing is read first, so concurrent
+     * reservations never oversell and never wait on each other's read-modify-write.
+     *
+     * @return 1 when reserved, 0 when the product is missing or has too few units
+     */
+    @Transactional
+    public int decrementQuantity(Long id, long amount) {
+        int updated = jdbcTemplate.update(
+                "UPDATE products SET quantity = quantity - ?, version = version + 1 WHERE id = ? AND quantity >= ?",
+                amount, id, amount);
+        evictUpdated(id, updated);
+        return updated;
+    }
+
+    @Transactional
+    public int incrementQuantity(Long id, long amount) {
+        int updated = jdbcTemplate.update(
+                "UPDATE products SET quantity = quantity + ?, version = version + 1 WHERE id = ?", amount, id);
+        evictUpdated(id, updated);
+        return updated;
+    }
+
+    private void evictUpdated(Long id, int updated) {
+        if (updated > 0) {
+            secondLevelCache.evictAfterCommit(List.of(id));
+        }
+    }
+
+    public Set<String> findExistingNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+
+        return new HashSet<>(namedTemplate.queryForList(
+                "SELECT name FROM products WHERE name IN (:names)", Map.of("names", names), String.class));
+    }
+
+    /**
+     * Products with the given ids, in no particular order, with one {@code IN} query per
+     * {@value #IN_CHUNK_SIZE} ids.
+     */
+    public List<Product> findAllByIds(Collection<Long> ids) {
+        return findAllIn("id", List.copyOf(ids));
+    }
+
+    /**
+     * Products whose name matches one of {@code names} ignoring case, chunked like {@link #findAllByIds}.
+     */
+    public List<Product> findAllByNames(Collection<String> names) {
+        return findAllIn("name_key", names.stream().map(ProductFilter::normalize).distinct().toList());
+    }
+
+    private List<Product> findAllIn(String column, List<?> values) {
+        List<Product> products = new ArrayList<>(values.size());
+        for (int from = 0; from < values.size(); from += IN_CHUNK_SIZE) {
+            List<?> chunk = values.subList(from, Math.min(from + IN_CHUNK_SIZE, values.size()));
+            products.addAll(namedTemplate.query(SELECT + " WHERE " + column + " IN (:values)",
+                    Map.of("values", chunk), ROW_MAPPER));
+        }
+        return products;
+    }
+
+    /**
+     * Walks the filtered rows with a forward-only cursor, handing each one to {@code action}
+     * without collecting them. On MySQL this needs {@code useCursorFetch=true} on the URL.
+     */
+    public void stream(ProductFilter filter, Consumer<Product> action) {
+        cursorTemplate.query(SELECT + WHERE.get(filter.shape()) + " ORDER BY id", rs -> {
+            action.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+        }, arguments(filter));
+    }
+
+    /**
+     * Aggregates the filtered rows per category in the database; categories without rows are left out.
+     */
+    public List<CategoryFacet> facets(ProductFilter filter) {
+        return jdbcTemplate.query(SELECT_FACETS + WHERE.get(filter.shape()) + " GROUP BY category ORDER BY category",
+                (rs, rowNum) -> new CategoryFacet(
+                        CategoryType.valueOf(rs.getString(1)),
+                        rs.getLong(2),
+                        rs.getBigDecimal(3),
+                        rs.getBigDecimal(4),
+                        rs.getBigDecimal(5).setScale(2, RoundingMode.HALF_UP),
+                        rs.getLong(6)),
+                arguments(filter));
+    }
+
+    /**
+     * Selects only the columns of {@code fields} for the filtered rows with an id greater than {@code after},
+     * mapped straight to read-only views.
+     */
+    public List<ProductView> findViews(ProductFilter filter, Set<ProductField> fields, long after, Limit limit) {
+        String where = WHERE.get(filter.shape());
+        String sql = select(fields) + (where.isEmpty() ? " WHERE id > ?" : where + " AND id > ?") + " ORDER BY id";
+
+        List<Object> args = new ArrayList<>(List.of(arguments(filter)));
+        args.add(after);
+        if (limit.isLimited()) {
+            sql += " LIMIT ?";
+            args.add(limit.max());
+        }
+
+        return jdbcTemplate.query(sql, viewMapper(fields), args.toArray());
+    }
+
+    public Optional<ProductView> findView(Long id, Set<ProductField> fields) {
+        return jdbcTemplate.query(select(fields) + " WHERE id = ?", viewMapper(fields), id).stream().findFirst();
+    }
+
+    public Optional<ProductView> findViewByName(String name, Set<ProductField> fields) {
+        return jdbcTemplate.query(select(fields) + " WHERE name = ?", viewMapper(fields), name).stream().findFirst();
+    }
+
+    private static String select(Set<ProductField> fields) {
+        StringJoiner columns = new StringJoiner(", ", "SELECT ", " FROM products");
+        fields.forEach(field -> columns.add(field.column()));
+        return columns.toString();
+    }
+
+    private static RowMapper<ProductView> viewMapper(Set<ProductField> fields) {
+        return (rs, rowNum) -> new ProductView(
+                rs.getLong("id"),
+                fields.contains(ProductField.NAME) ? rs.getString("name") : null,
+                fields.contains(ProductField.DESCRIPTION) ? rs.getString("description") : null,
+                fields.contains(ProductField.CATEGORY) ? CategoryType.valueOf(rs.getString("category")) : null,
+                fields.contains(ProductField.QUANTITY) ? rs.getLong("quantity") : null,
+                fields.contains(ProductField.PRICE) ? rs.getBigDecimal("price") : null);
+    }
+
+    private static Object[] arguments(ProductFilter filter) {
+        return switch (filter.shape()) {
+            case ALL -> new Object[0];
+            case NAME -> new Object[] { filter.nameKey() };
+            case CATEGORY -> new Object[] { filter.category().name() };
+            case NAME_AND_CATEGORY -> new Object[] { filter.nameKey(), filter.category().name() };
+        };
+    }
+}
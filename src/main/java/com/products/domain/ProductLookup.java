@@ -0,0 +1,9 @@
+package com.products.domain;
+
+import java.util.List;
+
+/**
+ * Products resolved by a multi-get, in request order, with the ids and names that matched nothing.
+ */
+public record ProductLookup(List<Product> products, List<Long> missingIds, List<String> missingNames) {
+}
@@ -0,0 +1,15 @@
+package com.products.domain;
+
+import java.util.Optional;
+
+/**
+ * Lookups by {@code name}, the product's natural id.
+ */
+public interface ProductNaturalIdRepository {
+
+    /**
+     * Resolves the name through Hibernate's natural-id cache and loads the product through the
+     * entity cache, so a warm lookup runs no SQL.
+     */
+    Optional<Product> findByName(String name);
+}
@@ -0,0 +1,23 @@
+package com.products.domain;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class ProductNaturalIdRepositoryImpl implements ProductNaturalIdRepository {
+    private final EntityManager entityManager;
+
+    @Autowired
+    ProductNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Product> findByName(String name) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Product.class).loadOptional(name);
+    }
+}
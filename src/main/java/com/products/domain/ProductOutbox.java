@@ -0,0 +1,131 @@
+package com.products.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox: every product write records its {@link ProductChange} here in the same
+ * transaction, and a relay hands the rows on once they are committed.
+ */
+@Repository
+public class ProductOutbox {
+    private static final String INSERT =
+            "INSERT INTO product_outbox (type, product_id, category, payload, occurred_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT =
+            "SELECT id, type, product_id, category, payload, occurred_at FROM product_outbox";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<ProductChangeRecord> rowMapper;
+
+    @Autowired
+    public ProductOutbox(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.objectMapper = objectMapper;
+        this.rowMapper = (rs, rowNum) -> {
+            String category = rs.getString("category");
+            String payload = rs.getString("payload");
+            return new ProductChangeRecord(
+                    rs.getLong("id"),
+                    ProductChangeRecord.Type.valueOf(rs.getString("type")),
+                    rs.getObject("product_id", Long.class),
+                    category == null ? null : CategoryType.valueOf(category),
+                    payload == null ? null : read(payload),
+                    rs.getTimestamp("occurred_at").toInstant());
+        };
+    }
+
+    /**
+     * Appends the changes to the caller's transaction; there must be one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<? extends ProductChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT, changes, changes.size(), (ps, change) -> {
+            if (change instanceof ProductChange.Created created) {
+                Product product = created.product();
+                ps.setString(1, ProductChangeRecord.Type.CREATED.name());
+                ps.setObject(2, product.getId());
+                ps.setString(3, product.getCategory().name());
+                ps.setString(4, write(product));
+            } else if (change instanceof ProductChange.Removed removed) {
+                ps.setString(1, ProductChangeRecord.Type.REMOVED.name());
+                ps.setObject(2, removed.id());
+                ps.setString(3, null);
+                ps.setString(4, null);
+            } else if (change instanceof ProductChange.CategoryRemoved removed) {
+                ps.setString(1, ProductChangeRecord.Type.CATEGORY_REMOVED.name());
+                ps.setObject(2, null);
+                ps.setString(3, removed.category().name());
+                ps.setString(4, null);
+            }
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    /**
+     * The oldest rows the relay has not handed on yet, in id order.
+     */
+    public List<ProductChangeRecord> findUnpublished(int limit) {
+        return jdbcTemplate.query(SELECT + " WHERE published_at IS NULL ORDER BY id LIMIT ?", rowMapper, limit);
+    }
+
+    /**
+     * Rows with an id greater than {@code sequence}, published or not, in id order.
+     */
+    public List<ProductChangeRecord> findAfter(long sequence, int limit) {
+        return jdbcTemplate.query(SELECT + " WHERE id > ? ORDER BY id LIMIT ?", rowMapper, sequence, limit);
+    }
+
+    public int markPublished(Collection<Long> sequences) {
+        if (sequences.isEmpty()) {
+            return 0;
+        }
+
+        return namedTemplate.update("UPDATE product_outbox SET published_at = :now WHERE id IN (:ids)",
+                Map.of("now", Timestamp.from(Instant.now()), "ids", sequences));
+    }
+
+    /**
+     * Deletes the rows that occurred before {@code before}, whether they were published or not.
+     */
+    public int purgeBefore(Instant before) {
+        return jdbcTemplate.update("DELETE FROM product_outbox WHERE occurred_at < ?", Timestamp.from(before));
+    }
+
+    private String write(Product product) {
+        try {
+            return objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize product " + product.getId(), ex);
+        }
+    }
+
+    private Product read(String payload) {
+        try {
+            return objectMapper.readValue(payload, Product.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read outbox payload", ex);
+        }
+    }
+}
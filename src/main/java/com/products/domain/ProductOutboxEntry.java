@@ -0,0 +1,49 @@
+package com.products.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Mapping of the {@code product_outbox} table, so the schema is managed with the products table.
+ * Rows are only written and read through {@link ProductOutbox}.
+ */
+@Entity
+@Table(name = "product_outbox", indexes = {
+        @Index(name = "idx_product_outbox_published_at", columnList = "published_at, id"),
+        @Index(name = "idx_product_outbox_occurred_at", columnList = "occurred_at")
+})
+class ProductOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private ProductChangeRecord.Type type;
+
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    private CategoryType category;
+
+    @Column(length = 2048)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    private Instant publishedAt;
+
+    protected ProductOutboxEntry() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.products.domain;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One keyset page of products or product views. {@code next} is null on the last page.
+ */
+public record ProductPage<T>(List<T> items, String next) {
+
+    /**
+     * Builds a page from {@code limit + 1} fetched rows; the extra row only tells whether there is a next page.
+     */
+    static <T> ProductPage<T> of(List<T> rows, int limit, ToLongFunction<T> id) {
+        if (rows.size() <= limit) {
+            return new ProductPage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, limit);
+        return new ProductPage<>(items, PageCursor.encode(id.applyAsLong(items.get(limit - 1))));
+    }
+}
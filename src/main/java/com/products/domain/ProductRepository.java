@@ -1,15 +1,54 @@
 package com.products.domain;
 
-import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
-import org.springframework.data.repository.query.QueryByExampleExecutor;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends CrudRepository<Product, Long>, QueryByExampleExecutor<Product> {
-    Optional<Product> findByName(String name);
+public interface ProductRepository extends CrudRepository<Product, Long>, ProductNaturalIdRepository {
 
-    @Override
-    <S extends Product> List<S> findAll(Example<S> example);
+    @Query("select new com.products.domain.ProductVersion(p.id, p.version) from Product p where p.id = :id")
+    Optional<ProductVersion> findVersionById(Long id);
+
+    @Query("select new com.products.domain.ProductVersion(p.id, p.version) from Product p where p.name = :name")
+    Optional<ProductVersion> findVersionByName(String name);
+
+    /**
+     * Products matching {@code filter} with an id greater than {@code after}, in id order.
+     */
+    default List<Product> findPage(ProductFilter filter, long after, Limit limit) {
+        return switch (filter.shape()) {
+            case ALL -> findAllAfter(after, limit);
+            case NAME -> findByNameKeyAfter(filter.nameKey(), after, limit);
+            case CATEGORY -> findByCategoryAfter(filter.category(), after, limit);
+            case NAME_AND_CATEGORY -> findByNameKeyAndCategoryAfter(filter.nameKey(), filter.category(), after, limit);
+        };
+    }
+
+    @Query("select p from Product p where p.id > :after order by p.id")
+    List<Product> findAllAfter(long after, Limit limit);
+
+    @Query("select p from Product p where p.nameKey = :nameKey and p.id > :after order by p.id")
+    List<Product> findByNameKeyAfter(String nameKey, long after, Limit limit);
+
+    @Query("select p from Product p where p.category = :category and p.id > :after order by p.id")
+    List<Product> findByCategoryAfter(CategoryType category, long after, Limit limit);
+
+    @Query("select p from Product p where p.nameKey = :nameKey and p.category = :category and p.id > :after order by p.id")
+    List<Product> findByNameKeyAndCategoryAfter(String nameKey, CategoryType category, long after, Limit limit);
+
+    /**
+     * Deletes with a single statement. Hibernate drops the whole second-level cache regions for it, which
+     * is fine for this rare operation; deletes by id go through {@link ProductJdbcRepository#deleteAll}.
+     *
+     * @return the number of deleted rows
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.category = :category")
+    int removeByCategory(CategoryType category);
 }
@@ -0,0 +1,84 @@
+package com.products.domain;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts single products from Hibernate's second-level and natural-id caches after plain JDBC writes,
+ * which Hibernate does not see. JPQL bulk statements would be seen, but they drop the whole regions.
+ * Does nothing when the second-level cache is disabled.
+ * <p>
+ * The session factory is resolved on first use: with deferred JPA bootstrap ({@code fast-startup}) it is
+ * still being built when this bean is created, and unwrapping it then would wait for it.
+ */
+@Component
+public class ProductSecondLevelCache {
+    private final SingletonSupplier<SessionFactoryImplementor> sessionFactory;
+
+    @Autowired
+    public ProductSecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = SingletonSupplier.of(() -> entityManagerFactory.unwrap(SessionFactoryImplementor.class));
+    }
+
+    public boolean isEnabled() {
+        return sessionFactory.obtain().getSessionFactoryOptions().isSecondLevelCacheEnabled();
+    }
+
+    /**
+     * Evicts the products once the current transaction has committed, so a read in between cannot cache
+     * the old row again.
+     */
+    public void evictAfterCommit(Collection<Long> ids) {
+        evictAfterCommit(ids, List.of());
+    }
+
+    /**
+     * Like {@link #evictAfterCommit(Collection)}, and also evicts the name to id resolutions of {@code names}.
+     */
+    public void evictAfterCommit(Collection<Long> ids, Collection<String> names) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ids, names);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(ids, names);
+            }
+        });
+    }
+
+    private void evict(Collection<Long> ids, Collection<String> names) {
+        SessionFactoryImplementor sessionFactory = this.sessionFactory.obtain();
+        ids.forEach(id -> sessionFactory.getCache().evictEntityData(Product.class, id));
+
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Product.class);
+        NaturalIdDataAccess naturalIds = persister.getNaturalIdCacheAccessStrategy();
+        if (naturalIds == null || names.isEmpty()) {
+            return;
+        }
+
+        // Cache keys are built through a session, but this one never opens a connection.
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (String name : names) {
+                naturalIds.evict(naturalIds.generateCacheKey(name, persister, (SharedSessionContractImplementor) session));
+            }
+        }
+    }
+}
@@ -1,39 +1,261 @@
 package com.products.domain;
 
+import com.products.datasource.PrimaryPin;
+import com.products.singleflight.Coalesced;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class ProductService {
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final ProductRepository repository;
+    private final ProductJdbcRepository jdbcRepository;
+    private final ProductCache cache;
+    private final ProductOutbox outbox;
+    private final ApplicationEventPublisher events;
 
     @Autowired
-    public ProductService(ProductRepository repository) {
+    public ProductService(ProductRepository repository, ProductJdbcRepository jdbcRepository, ProductCache cache,
+                          ProductOutbox outbox, ApplicationEventPublisher events) {
         this.repository = repository;
+        this.jdbcRepository = jdbcRepository;
+        this.cache = cache;
+        this.outbox = outbox;
+        this.events = events;
     }
 
+    @Transactional
     public Product create(Product product) {
-        return repository.save(product);
+        Product created = repository.save(product);
+        publish(List.of(new ProductChange.Created(created)));
+        return created;
     }
 
+    /**
+     * Cache misses are loaded from the primary even with read replicas: a lagging replica could hand back a
+     * row that was just changed, and the cache would keep it until it expires.
+     */
+    @Coalesced
+    @Transactional(readOnly = true)
     public Optional<Product> get(Long id) {
-        return repository.findById(id);
+        return cache.getById(id, this::findOnPrimary);
     }
 
+    @Coalesced
+    @Transactional(readOnly = true)
     public Optional<Product> getByName(String name) {
-        return repository.findByName(name);
+        return cache.getByName(name, this::findByNameOnPrimary, this::findOnPrimary);
+    }
+
+    /**
+     * Resolves up to {@value #MAX_PAGE_SIZE} ids and names at once. Ids held by the cache are not queried
+     * again; the rest are loaded with chunked {@code IN} queries instead of one query per product.
+     */
+    @Transactional(readOnly = true)
+    public ProductLookup lookup(LookupRequest request) {
+        if (request.ids().size() + request.names().size() > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("at most " + MAX_PAGE_SIZE + " ids and names can be looked up at once");
+        }
+
+        Map<Long, Product> byId = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(request.ids())) {
+            cache.peek(id).ifPresentOrElse(product -> byId.put(id, product), () -> uncached.add(id));
+        }
+        jdbcRepository.findAllByIds(uncached).forEach(product -> byId.put(product.getId(), product));
+
+        Map<String, Product> byName = new HashMap<>();
+        jdbcRepository.findAllByNames(request.names())
+                .forEach(product -> byName.put(ProductFilter.normalize(product.getName()), product));
+
+        // Keyed by id, so a product asked for twice, or by id and by name, is returned once.
+        Map<Long, Product> products = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        List<String> missingNames = new ArrayList<>();
+        for (Long id : request.ids()) {
+            Product product = byId.get(id);
+            if (product == null) {
+                missingIds.add(id);
+            } else {
+                products.putIfAbsent(id, product);
+            }
+        }
+        for (String name : request.names()) {
+            Product product = byName.get(ProductFilter.normalize(name));
+            if (product == null) {
+                missingNames.add(name);
+            } else {
+                products.putIfAbsent(product.getId(), product);
+            }
+        }
+
+        return new ProductLookup(List.copyOf(products.values()), missingIds, missingNames);
+    }
+
+    /**
+     * Current version of a product, from the cache when it holds the product.
+     */
+    @Coalesced
+    @Transactional(readOnly = true)
+    public Optional<ProductVersion> version(Long id) {
+        return cache.peek(id)
+                .map(product -> new ProductVersion(product.getId(), product.getVersion()))
+                .or(() -> repository.findVersionById(id));
+    }
+
+    @Coalesced
+    @Transactional(readOnly = true)
+    public Optional<ProductVersion> versionByName(String name) {
+        return repository.findVersionByName(name);
     }
 
+    @Coalesced
+    @Transactional(readOnly = true)
+    public List<CategoryFacet> facets(String name) {
+        return jdbcRepository.facets(ProductFilter.of(name, null));
+    }
+
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<Product> list(String name, CategoryType category) {
-        Example<Product> query = QueryBuilder.makeQuery(new Product(name, category));
-        return repository.findAll(query);
+        return repository.findPage(ProductFilter.of(name, category), 0L, Limit.unlimited());
+    }
+
+    @Coalesced
+    @Transactional(readOnly = true)
+    public ProductPage<Product> list(String name, CategoryType category, String cursor, int limit) {
+        checkLimit(limit);
+
+        long after = PageCursor.decode(cursor);
+        List<Product> products = repository.findPage(ProductFilter.of(name, category), after, Limit.of(limit + 1));
+        return ProductPage.of(products, limit, Product::getId);
+    }
+
+    /**
+     * Single product reduced to {@code fields}, projected from the cache when it holds the product.
+     */
+    @Coalesced
+    @Transactional(readOnly = true)
+    public Optional<ProductView> get(Long id, Set<ProductField> fields) {
+        return cache.peek(id)
+                .map(product -> ProductView.of(product, fields))
+                .or(() -> jdbcRepository.findView(id, fields));
+    }
+
+    @Coalesced
+    @Transactional(readOnly = true)
+    public Optional<ProductView> getByName(String name, Set<ProductField> fields) {
+        return jdbcRepository.findViewByName(name, fields);
+    }
+
+    @Coalesced
+    @Transactional(readOnly = true)
+    public List<ProductView> list(String name, CategoryType category, Set<ProductField> fields) {
+        return jdbcRepository.findViews(ProductFilter.of(name, category), fields, 0L, Limit.unlimited());
     }
 
+    @Coalesced
+    @Transactional(readOnly = true)
+    public ProductPage<ProductView> list(String name, CategoryType category, Set<ProductField> fields, String cursor, int limit) {
+        checkLimit(limit);
+
+        long after = PageCursor.decode(cursor);
+        List<ProductView> views = jdbcRepository.findViews(ProductFilter.of(name, category), fields, after, Limit.of(limit + 1));
+        return ProductPage.of(views, limit, ProductView::id);
+    }
+
+    @Transactional(readOnly = true)
+    public void stream(String name, CategoryType category, Consumer<Product> action) {
+        jdbcRepository.stream(ProductFilter.of(name, category), action);
+    }
+
+    @Transactional
     public void remove(Long id) {
-        repository.deleteById(id);
+        if (jdbcRepository.deleteAll(List.of(id)).isEmpty()) {
+            throw new EmptyResultDataAccessException("No product with id " + id, 1);
+        }
+        publish(List.of(new ProductChange.Removed(id)));
+    }
+
+    @Transactional
+    public DeleteResult removeAll(Collection<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("at most " + MAX_PAGE_SIZE + " ids can be removed at once");
+        }
+        if (ids.isEmpty()) {
+            return new DeleteResult(0);
+        }
+
+        List<Long> deleted = jdbcRepository.deleteAll(ids);
+        if (!deleted.isEmpty()) {
+            publish(deleted.stream().map(ProductChange.Removed::new).toList());
+        }
+        return new DeleteResult(deleted.size());
+    }
+
+    @Transactional
+    public DeleteResult removeAll(CategoryType category) {
+        int deleted = repository.removeByCategory(category);
+        if (deleted > 0) {
+            publish(List.of(new ProductChange.CategoryRemoved(category)));
+        }
+        return new DeleteResult(deleted);
+    }
+
+    /**
+     * Records the changes in the outbox as part of the write. The cache is evicted after commit, and
+     * cache misses are read from the primary, so a concurrent read cannot cache the old row again;
+     * listeners see the events at the same point.
+     */
+    private void publish(List<? extends ProductChange> changes) {
+        outbox.append(changes);
+        afterCommit(() -> changes.forEach(cache::evict));
+        changes.forEach(events::publishEvent);
+    }
+
+    private Optional<Product> findOnPrimary(Long id) {
+        return PrimaryPin.onPrimary(() -> repository.findById(id));
+    }
+
+    private Optional<Product> findByNameOnPrimary(String name) {
+        return PrimaryPin.onPrimary(() -> repository.findByName(name));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 }
@@ -0,0 +1,7 @@
+package com.products.domain;
+
+/**
+ * Id and version of a product, enough to revalidate it without loading the row.
+ */
+public record ProductVersion(Long id, Long version) {
+}
@@ -0,0 +1,23 @@
+package com.products.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Read-only projection of the selected product fields; unselected fields are null and not serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductView(Long id, String name, String description, CategoryType category, Long quantity, BigDecimal price) {
+
+    public static ProductView of(Product product, Set<ProductField> fields) {
+        return new ProductView(
+                product.getId(),
+                fields.contains(ProductField.NAME) ? product.getName() : null,
+                fields.contains(ProductField.DESCRIPTION) ? product.getDescription() : null,
+                fields.contains(ProductField.CATEGORY) ? product.getCategory() : null,
+                fields.contains(ProductField.QUANTITY) ? product.getQuantity() : null,
+                fields.contains(ProductField.PRICE) ? product.getPrice() : null);
+    }
+}
@@ -0,0 +1,232 @@
+package com.products.domain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.products.datasource.PrimaryPin;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind for product creation: creations are queued and a single writer commits them in
+ * groups of up to {@code products.write-behind.group-size}, waiting at most
+ * {@code products.write-behind.max-delay} for a group to fill, so a burst costs one commit per group
+ * instead of one per product. Groups go through {@link ProductBatchService}, so each caller still
+ * gets its own product or its own failure, such as a taken name.
+ * <p>
+ * The queue holds {@code products.write-behind.capacity} creations; when it is full, {@link #submit}
+ * waits up to {@code products.write-behind.offer-timeout} and then throws {@link WriteBehindFullException}.
+ * {@link #create} waits up to {@code products.write-behind.create-timeout} for the commit and then throws
+ * {@link WriteBehindTimeoutException}. Queued creations are only in memory until committed; they are
+ * drained on shutdown, and any that arrive too late to be drained fail.
+ */
+@Component
+@ConditionalOnProperty(name = "products.write-behind.enabled", havingValue = "true")
+public class ProductWriteBehind {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final ProductBatchService batchService;
+    private final BlockingQueue<QueuedCreation> queue;
+    private final Cache<String, QueuedCreation> tracked;
+    private final DistributionSummary groupSizes;
+    private final int groupSize;
+    private final Duration maxDelay;
+    private final Duration offerTimeout;
+    private final Duration createTimeout;
+    private final Thread writer = new Thread(this::drain, "product-write-behind");
+    private volatile boolean running = true;
+
+    @Autowired
+    public ProductWriteBehind(ProductBatchService batchService, MeterRegistry registry,
+                              @Value("${products.write-behind.capacity:10000}") int capacity,
+                              @Value("${products.write-behind.group-size:500}") int groupSize,
+                              @Value("${products.write-behind.max-delay:PT0.01S}") Duration maxDelay,
+                              @Value("${products.write-behind.offer-timeout:PT0.1S}") Duration offerTimeout,
+                              @Value("${products.write-behind.create-timeout:PT5S}") Duration createTimeout,
+                              @Value("${products.write-behind.retention:PT10M}") Duration retention) {
+        this.batchService = batchService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.tracked = Caffeine.newBuilder()
+                .maximumSize(10L * capacity)
+                .expireAfterWrite(retention)
+                .build();
+        this.groupSize = groupSize;
+        this.maxDelay = maxDelay;
+        this.offerTimeout = offerTimeout;
+        this.createTimeout = createTimeout;
+        this.groupSizes = DistributionSummary.builder("products.write-behind.group.size").register(registry);
+        Gauge.builder("products.write-behind.queue", queue, BlockingQueue::size).register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Drains what is already queued, then stops the writer. Creations queued while it was stopping
+     * are failed rather than left waiting.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join();
+
+        List<QueuedCreation> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.forEach(creation -> creation.result().completeExceptionally(shuttingDown()));
+    }
+
+    /**
+     * Queues the creation and returns at once; its outcome is available from {@link #status}.
+     */
+    public ProductCreation submit(Product product) {
+        return status(enqueue(product));
+    }
+
+    /**
+     * Queues the creation and waits for the commit of its group.
+     */
+    public Product create(Product product) {
+        QueuedCreation creation = enqueue(product);
+        try {
+            Product created = creation.result().get(createTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            // Committed by the writer thread, on behalf of this one.
+            PrimaryPin.written();
+            return created;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new WriteBehindTimeoutException("Product creation is not committed yet", creation.trackingId());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WriteBehindTimeoutException("Interrupted while waiting for the product creation", creation.trackingId());
+        }
+    }
+
+    public Optional<ProductCreation> status(String trackingId) {
+        return Optional.ofNullable(tracked.getIfPresent(trackingId)).map(ProductWriteBehind::status);
+    }
+
+    private QueuedCreation enqueue(Product product) {
+        QueuedCreation creation = new QueuedCreation(UUID.randomUUID().toString(), product, new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(creation, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new WriteBehindFullException("Product creation queue is full, retry later");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WriteBehindFullException("Interrupted while waiting for the product creation queue");
+        }
+        // stop() may have drained the queue between the check and the offer; nothing would commit it then.
+        if (!running && queue.remove(creation)) {
+            throw shuttingDown();
+        }
+
+        tracked.put(creation.trackingId(), creation);
+        return creation;
+    }
+
+    private void drain() {
+        List<QueuedCreation> group = new ArrayList<>(groupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedCreation first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+                while (group.size() < groupSize && queue.drainTo(group, groupSize - group.size()) == 0) {
+                    QueuedCreation next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<QueuedCreation> group) {
+        groupSizes.record(group.size());
+
+        BatchResult result;
+        try {
+            result = batchService.createAll(group.stream().map(QueuedCreation::product).iterator(), group.size());
+        } catch (RuntimeException ex) {
+            group.forEach(creation -> creation.result().completeExceptionally(ex));
+            return;
+        }
+
+        Map<Integer, BatchError> errors = new HashMap<>();
+        result.errors().forEach(error -> errors.put(error.index(), error));
+        for (int i = 0; i < group.size(); i++) {
+            QueuedCreation creation = group.get(i);
+            BatchError error = errors.get(i);
+            if (error == null) {
+                creation.result().complete(creation.product());
+            } else {
+                creation.result().completeExceptionally(failure(error));
+            }
+        }
+    }
+
+    private static WriteBehindFullException shuttingDown() {
+        return new WriteBehindFullException("Product creation queue is shutting down, retry later");
+    }
+
+    private static RuntimeException failure(BatchError error) {
+        return error.reason() == BatchError.Reason.CONFLICT
+                ? new DataIntegrityViolationException(error.message() + ": " + error.name())
+                : new InvalidRequestException(error.message());
+    }
+
+    private static ProductCreation status(QueuedCreation creation) {
+        CompletableFuture<Product> result = creation.result();
+        if (!result.isDone()) {
+            return new ProductCreation(creation.trackingId(), ProductCreation.State.PENDING, null, null);
+        }
+
+        try {
+            return new ProductCreation(creation.trackingId(), ProductCreation.State.CREATED, result.join(), null);
+        } catch (CompletionException ex) {
+            return new ProductCreation(creation.trackingId(), ProductCreation.State.FAILED, null, ex.getCause().getMessage());
+        }
+    }
+
+    record QueuedCreation(String trackingId, Product product, CompletableFuture<Product> result) {
+    }
+}
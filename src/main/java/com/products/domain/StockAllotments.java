@@ -0,0 +1,184 @@
+package com.products.domain;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory front for hot products: stock is leased from the database in blocks of
+ * {@code products.reservations.lease-size} units and reservations are served from striped
+ * local counters, so a flash sale costs one conditional UPDATE per lease instead of one per order.
+ * <p>
+ * Leased units are already subtracted in the database, so nothing can be oversold; unused units
+ * are handed back every {@code products.reservations.flush-interval} and on shutdown.
+ * <p>
+ * An allotment is only created once a lease has succeeded, so ids of missing products never get one,
+ * and it is dropped when its product is removed.
+ */
+@Component
+@ConditionalOnProperty(name = "products.reservations.allotments.enabled", havingValue = "true")
+public class StockAllotments {
+    private final ProductJdbcRepository jdbcRepository;
+    private final long leaseSize;
+    private final int stripes;
+    private final Map<Long, Allotment> allotments = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StockAllotments(ProductJdbcRepository jdbcRepository,
+                           @Value("${products.reservations.lease-size:100}") long leaseSize,
+                           @Value("${products.reservations.stripes:8}") int stripes) {
+        this.jdbcRepository = jdbcRepository;
+        this.leaseSize = leaseSize;
+        this.stripes = stripes;
+    }
+
+    /**
+     * Reserves from the local allotment, leasing a new block when it runs dry.
+     *
+     * @return false when the database cannot cover the reservation either
+     */
+    public boolean reserve(Long id, long amount) {
+        Allotment allotment = allotments.get(id);
+        if (allotment == null) {
+            return leaseFirst(id, amount);
+        }
+        if (allotment.tryTake(amount)) {
+            return true;
+        }
+
+        // One lease per product at a time; threads queued here usually find the new block on retry.
+        synchronized (allotment) {
+            if (allotment.tryTake(amount)) {
+                return true;
+            }
+
+            long lease = Math.max(leaseSize, amount);
+            if (jdbcRepository.decrementQuantity(id, lease) == 1) {
+                allotment.add(lease - amount);
+                return true;
+            }
+
+            // Less than a block left: give back what the stripes hold and take exactly what was asked.
+            long leftover = allotment.drain();
+            if (leftover > 0) {
+                jdbcRepository.incrementQuantity(id, leftover);
+            }
+            return jdbcRepository.decrementQuantity(id, amount) == 1;
+        }
+    }
+
+    /**
+     * Drops the allotments of removed products; their leased units went with the rows.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ProductChange change) {
+        if (change instanceof ProductChange.Removed removed) {
+            allotments.remove(removed.id());
+        } else if (change instanceof ProductChange.CategoryRemoved) {
+            Set<Long> existing = jdbcRepository.findAllByIds(List.copyOf(allotments.keySet())).stream()
+                    .map(Product::getId)
+                    .collect(Collectors.toSet());
+            allotments.keySet().retainAll(existing);
+        }
+    }
+
+    /**
+     * Hands all unused leased units back to the database.
+     */
+    @Scheduled(fixedDelayString = "${products.reservations.flush-interval:PT1S}")
+    @PreDestroy
+    public void flush() {
+        allotments.forEach((id, allotment) -> {
+            long leftover = allotment.drain();
+            if (leftover > 0) {
+                jdbcRepository.incrementQuantity(id, leftover);
+            }
+        });
+    }
+
+    /**
+     * First reservation of a product: the lease doubles as the check that it exists.
+     */
+    private boolean leaseFirst(Long id, long amount) {
+        long lease = Math.max(leaseSize, amount);
+        if (jdbcRepository.decrementQuantity(id, lease) == 1) {
+            allotments.computeIfAbsent(id, key -> new Allotment(stripes)).add(lease - amount);
+            return true;
+        }
+        return jdbcRepository.decrementQuantity(id, amount) == 1;
+    }
+
+    int size() {
+        return allotments.size();
+    }
+
+    long available(Long id) {
+        Allotment allotment = allotments.get(id);
+        return allotment == null ? 0 : allotment.available();
+    }
+
+    /**
+     * Leased units spread over a few counters, so concurrent takes rarely CAS on the same one.
+     */
+    private static final class Allotment {
+        private final AtomicLong[] stripes;
+
+        Allotment(int stripes) {
+            this.stripes = new AtomicLong[stripes];
+            for (int i = 0; i < stripes; i++) {
+                this.stripes[i] = new AtomicLong();
+            }
+        }
+
+        boolean tryTake(long amount) {
+            int start = home();
+            for (int i = 0; i < stripes.length; i++) {
+                AtomicLong stripe = stripes[(start + i) % stripes.length];
+                long current = stripe.get();
+                while (current >= amount) {
+                    if (stripe.compareAndSet(current, current - amount)) {
+                        return true;
+                    }
+                    current = stripe.get();
+                }
+            }
+            return false;
+        }
+
+        void add(long amount) {
+            stripes[home()].addAndGet(amount);
+        }
+
+        long drain() {
+            long drained = 0;
+            for (AtomicLong stripe : stripes) {
+                drained += stripe.getAndSet(0);
+            }
+            return drained;
+        }
+
+        long available() {
+            long available = 0;
+            for (AtomicLong stripe : stripes) {
+                available += stripe.get();
+            }
+            return available;
+        }
+
+        private int home() {
+            return ThreadLocalRandom.current().nextInt(stripes.length);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.products.domain;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Stock reservations, applied as single conditional updates or through {@link StockAllotments} when enabled.
+ */
+@Service
+public class StockService {
+    private final ProductRepository repository;
+    private final ProductJdbcRepository jdbcRepository;
+    private final ProductCache cache;
+    private final Optional<StockAllotments> allotments;
+
+    @Autowired
+    public StockService(ProductRepository repository, ProductJdbcRepository jdbcRepository, ProductCache cache,
+                        Optional<StockAllotments> allotments) {
+        this.repository = repository;
+        this.jdbcRepository = jdbcRepository;
+        this.cache = cache;
+        this.allotments = allotments;
+    }
+
+    public void reserve(Long id, long amount) {
+        checkAmount(amount);
+
+        boolean reserved = allotments.isPresent()
+                ? allotments.get().reserve(id, amount)
+                : jdbcRepository.decrementQuantity(id, amount) == 1;
+        cache.evict(id);
+
+        if (!reserved) {
+            if (!repository.existsById(id)) {
+                throw new EmptyResultDataAccessException("No product with id " + id, 1);
+            }
+            throw new InsufficientStockException(id, amount);
+        }
+    }
+
+    public void release(Long id, long amount) {
+        checkAmount(amount);
+
+        int updated = jdbcRepository.incrementQuantity(id, amount);
+        cache.evict(id);
+        if (updated == 0) {
+            throw new EmptyResultDataAccessException("No product with id " + id, 1);
+        }
+    }
+
+    private static void checkAmount(long amount) {
+        if (amount < 1) {
+            throw new InvalidRequestException("amount must be at least 1");
+        }
+    }
+}
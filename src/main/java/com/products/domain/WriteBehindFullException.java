@@ -0,0 +1,10 @@
+package com.products.domain;
+
+/**
+ * The write-behind queue stayed full for the whole offer timeout, or is shutting down.
+ */
+public class WriteBehindFullException extends RuntimeException {
+    public WriteBehindFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.products.domain;
+
+/**
+ * A queued creation was not committed within the create timeout. It stays queued and may still be
+ * committed; its outcome is tracked under {@link #getTrackingId()}.
+ */
+public class WriteBehindTimeoutException extends RuntimeException {
+    private final String trackingId;
+
+    public WriteBehindTimeoutException(String message, String trackingId) {
+        super(message);
+        this.trackingId = trackingId;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+}
@@ -0,0 +1,104 @@
+package com.products.metrics;
+
+import com.products.domain.InsufficientStockException;
+import com.products.domain.InvalidRequestException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Optional;
+
+/**
+ * Times the products hot path per layer ({@code products.controller}, {@code products.service},
+ * {@code products.repository}), tagged by operation and by the outcome {@code GeneralExceptionHandler}
+ * would produce for it.
+ */
+@Aspect
+@Component
+public class ProductMetricsAspect {
+    static final String OUTCOME_SUCCESS = "success";
+    static final String OUTCOME_NOT_FOUND = "not_found";
+    static final String OUTCOME_CONFLICT = "conflict";
+    static final String OUTCOME_INVALID = "invalid";
+    static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public ProductMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.products.web.ProductController.*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("products.controller", joinPoint);
+    }
+
+    @Around("execution(public * com.products.domain.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("products.service", joinPoint);
+    }
+
+    @Around("execution(public * com.products.domain.ProductJdbcRepository.*(..)) || this(com.products.domain.ProductRepository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("products.repository", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = outcome(result);
+            return result;
+        } catch (Throwable ex) {
+            outcome = outcome(ex);
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    static String outcome(Object result) {
+        if (result instanceof Optional<?> optional && optional.isEmpty()) {
+            return OUTCOME_NOT_FOUND;
+        }
+        if (result instanceof ResponseEntity<?> response) {
+            int status = response.getStatusCode().value();
+            if (status == 404) {
+                return OUTCOME_NOT_FOUND;
+            }
+            if (status == 409) {
+                return OUTCOME_CONFLICT;
+            }
+            if (status >= 400) {
+                return status >= 500 ? OUTCOME_ERROR : OUTCOME_INVALID;
+            }
+        }
+        return OUTCOME_SUCCESS;
+    }
+
+    static String outcome(Throwable ex) {
+        if (ex instanceof EmptyResultDataAccessException) {
+            return OUTCOME_NOT_FOUND;
+        }
+        if (ex instanceof DataIntegrityViolationException || ex instanceof InsufficientStockException) {
+            return OUTCOME_CONFLICT;
+        }
+        if (ex instanceof InvalidRequestException || ex instanceof MethodArgumentNotValidException) {
+            return OUTCOME_INVALID;
+        }
+        return OUTCOME_ERROR;
+    }
+}
@@ -0,0 +1,26 @@
+package com.products.outbox;
+
+import com.products.domain.ProductChangeRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hands relayed records to in-process {@code @EventListener}s of {@link ProductChangeRecord}.
+ */
+@Component
+public class ApplicationEventChangeSink implements ChangeSink {
+    private final ApplicationEventPublisher events;
+
+    @Autowired
+    public ApplicationEventChangeSink(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @Override
+    public void publish(List<ProductChangeRecord> records) {
+        records.forEach(events::publishEvent);
+    }
+}
@@ -0,0 +1,14 @@
+package com.products.outbox;
+
+import com.products.domain.ProductChangeRecord;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. Every {@code ChangeSink} bean receives each committed batch in
+ * sequence order; a batch is retried until all sinks have accepted it, so delivery is at least once.
+ */
+public interface ChangeSink {
+
+    void publish(List<ProductChangeRecord> records) throws Exception;
+}
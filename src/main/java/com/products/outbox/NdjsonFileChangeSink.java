@@ -0,0 +1,43 @@
+package com.products.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.products.domain.ProductChangeRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed records to {@code products.outbox.file}, one JSON object per line.
+ */
+@Component
+@ConditionalOnProperty(name = "products.outbox.file")
+public class NdjsonFileChangeSink implements ChangeSink {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public NdjsonFileChangeSink(@Value("${products.outbox.file}") Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<ProductChangeRecord> records) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ProductChangeRecord record : records) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        }
+    }
+}
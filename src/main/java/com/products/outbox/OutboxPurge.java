@@ -0,0 +1,35 @@
+package com.products.outbox;
+
+import com.products.domain.ProductOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Removes outbox rows older than {@code products.outbox.retention} on every instance, whether or not
+ * it relays: with the relay off, rows are never published and would otherwise pile up. Rows stay long
+ * enough for stream clients to catch up with {@code since}; a relay that falls further behind loses them.
+ */
+@Component
+public class OutboxPurge {
+    private final ProductOutbox outbox;
+    private final Duration retention;
+
+    @Autowired
+    public OutboxPurge(ProductOutbox outbox, @Value("${products.outbox.retention:P1D}") Duration retention) {
+        this.outbox = outbox;
+        this.retention = retention;
+    }
+
+    /**
+     * @return the number of rows removed
+     */
+    @Scheduled(fixedDelayString = "${products.outbox.purge-interval:PT1H}")
+    public int purge() {
+        return outbox.purgeBefore(Instant.now().minus(retention));
+    }
+}
@@ -0,0 +1,60 @@
+package com.products.outbox;
+
+import com.products.domain.ProductChangeRecord;
+import com.products.domain.ProductOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves committed outbox rows to the {@link ChangeSink}s in batches of {@code products.outbox.relay.batch-size}.
+ * <p>
+ * Rows are marked published only after every sink took the batch; when a sink fails the run stops and
+ * the same batch is offered again on the next one. Rows are not claimed, so only one instance per database
+ * may relay; it is off unless {@code products.outbox.relay.enabled} is set, and only the relaying instance
+ * pushes live events to its change stream clients. Old rows are removed by {@link OutboxPurge}, relayed or not.
+ */
+@Component
+@ConditionalOnProperty(name = "products.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+    private final ProductOutbox outbox;
+    private final List<ChangeSink> sinks;
+    private final int batchSize;
+
+    @Autowired
+    public OutboxRelay(ProductOutbox outbox, List<ChangeSink> sinks,
+                       @Value("${products.outbox.relay.batch-size:500}") int batchSize) {
+        this.outbox = outbox;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Relays until the outbox is drained.
+     *
+     * @return the number of records relayed
+     */
+    @Scheduled(fixedDelayString = "${products.outbox.relay.interval:PT0.5S}")
+    public int relay() throws Exception {
+        int relayed = 0;
+        List<ProductChangeRecord> batch;
+        do {
+            batch = outbox.findUnpublished(batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (ChangeSink sink : sinks) {
+                sink.publish(batch);
+            }
+            outbox.markPublished(batch.stream().map(ProductChangeRecord::sequence).toList());
+            relayed += batch.size();
+        } while (batch.size() == batchSize);
+
+        return relayed;
+    }
+}
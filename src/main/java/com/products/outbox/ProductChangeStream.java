@@ -0,0 +1,192 @@
+package com.products.outbox;
+
+import com.products.domain.ProductChangeRecord;
+import com.products.domain.ProductOutbox;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event subscribers of the relay. Each record is sent as one event whose id is the
+ * record's sequence, so clients resume with {@code since} or {@code Last-Event-ID}.
+ * <p>
+ * Every subscriber has its own queue of {@code products.outbox.stream.buffer-size} records, sent by a
+ * sender thread that only runs while the queue is not empty, so {@link #publish} never waits on a
+ * client. A subscriber whose queue is full is completed, and resumes from the last event it received.
+ * <p>
+ * The backlog after {@code since} is read from the outbox in pages once Spring MVC has taken the
+ * emitter, rather than buffered before the response starts. Live records queue up meanwhile; ones
+ * the backlog already covered are skipped.
+ */
+@Component
+public class ProductChangeStream implements ChangeSink {
+    private final ProductOutbox outbox;
+    private final int batchSize;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger senderCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newCachedThreadPool(task -> {
+        Thread sender = new Thread(task, "product-change-stream-" + senderCount.incrementAndGet());
+        sender.setDaemon(true);
+        return sender;
+    });
+
+    @Autowired
+    public ProductChangeStream(ProductOutbox outbox,
+                               @Value("${products.outbox.relay.batch-size:500}") int batchSize,
+                               @Value("${products.outbox.stream.buffer-size:1000}") int bufferSize,
+                               @Value("${products.outbox.stream.timeout:PT30M}") Duration timeout) {
+        this.outbox = outbox;
+        this.batchSize = batchSize;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Streams the records after {@code since}, if given, and then every record the relay publishes.
+     */
+    public SseEmitter subscribe(Long since) {
+        Subscriber subscriber = new Subscriber(since);
+        // Registered before the backlog is read, so nothing committed in between is lost.
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    @Override
+    public void publish(List<ProductChangeRecord> records) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(records);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdownNow();
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber extends SseEmitter {
+        private final BlockingQueue<ProductChangeRecord> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final Long since;
+        private volatile boolean started;
+        private volatile boolean overflowed;
+        private boolean replayed;
+        private long lastSent = -1;
+
+        Subscriber(Long since) {
+            super(timeoutMillis);
+            this.since = since;
+            onCompletion(() -> subscribers.remove(this));
+            onTimeout(this::complete);
+            onError(error -> subscribers.remove(this));
+        }
+
+        /**
+         * Called by Spring MVC as it takes the emitter, just before the response starts.
+         */
+        @Override
+        protected void extendResponse(ServerHttpResponse outputMessage) {
+            super.extendResponse(outputMessage);
+            started = true;
+            schedule();
+        }
+
+        void offer(List<ProductChangeRecord> records) {
+            for (ProductChangeRecord record : records) {
+                if (!queue.offer(record)) {
+                    subscribers.remove(this);
+                    overflowed = true;
+                    break;
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (started && sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::send);
+                } catch (RejectedExecutionException ex) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                if (!replayed) {
+                    replayed = true;
+                    if (since != null && !replay(since)) {
+                        return;
+                    }
+                }
+                ProductChangeRecord record;
+                while ((record = queue.poll()) != null) {
+                    if (record.sequence() > lastSent && !send(record)) {
+                        return;
+                    }
+                }
+                if (overflowed) {
+                    // The client reconnects and resumes after the last event it got.
+                    complete();
+                    return;
+                }
+            } finally {
+                sending.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private boolean replay(long after) {
+            List<ProductChangeRecord> page;
+            do {
+                page = outbox.findAfter(after, batchSize);
+                for (ProductChangeRecord record : page) {
+                    if (!send(record)) {
+                        return false;
+                    }
+                    after = record.sequence();
+                }
+            } while (page.size() == batchSize);
+            return true;
+        }
+
+        private boolean send(ProductChangeRecord record) {
+            try {
+                send(SseEmitter.event()
+                        .id(Long.toString(record.sequence()))
+                        .name(record.type().name())
+                        .data(record));
+                lastSent = record.sequence();
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                subscribers.remove(this);
+                completeWithError(ex);
+                return false;
+            }
+        }
+    }
+}
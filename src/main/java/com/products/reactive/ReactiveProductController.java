@@ -0,0 +1,66 @@
+package com.products.reactive;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductFilter;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link com.products.web.ProductController}, served when the
+ * {@code reactive} profile is active.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/products")
+public class ReactiveProductController {
+    private final ReactiveProductRepository repository;
+
+    @Autowired
+    public ReactiveProductController(ReactiveProductRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Product>> createProduct(@RequestBody @Valid Product product) {
+        return repository.save(product)
+                .map(productCreated -> ResponseEntity.status(HttpStatus.CREATED).body(productCreated));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> getProductById(@PathVariable("id") Long id) {
+        return repository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/name/{name}")
+    public Mono<ResponseEntity<Product>> getProductByName(@PathVariable("name") String name) {
+        return repository.findByName(name)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public Flux<Product> list(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) CategoryType category
+    ) {
+        return repository.findAll(ProductFilter.of(name, category));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> remove(@PathVariable("id") Long id) {
+        return repository.deleteById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new EmptyResultDataAccessException(1))
+                        : Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
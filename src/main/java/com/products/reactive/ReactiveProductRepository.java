@@ -0,0 +1,95 @@
+package com.products.reactive;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductFilter;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Non-blocking access to the products table through R2DBC.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepository {
+    private static final String SELECT = "SELECT id, name, description, category, quantity, price FROM products";
+    private static final Map<ProductFilter.Shape, String> LIST_QUERIES = new EnumMap<>(Map.of(
+            ProductFilter.Shape.ALL, SELECT + " ORDER BY id",
+            ProductFilter.Shape.NAME, SELECT + " WHERE name_key = :nameKey ORDER BY id",
+            ProductFilter.Shape.CATEGORY, SELECT + " WHERE category = :category ORDER BY id",
+            ProductFilter.Shape.NAME_AND_CATEGORY, SELECT + " WHERE name_key = :nameKey AND category = :category ORDER BY id"));
+
+    private final DatabaseClient client;
+
+    @Autowired
+    public ReactiveProductRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Product> save(Product product) {
+        return client.sql("INSERT INTO products (name, description, category, quantity, price) "
+                        + "VALUES (:name, :description, :category, :quantity, :price)")
+                .bind("name", product.getName())
+                .bind("description", product.getDescription())
+                .bind("category", product.getCategory().name())
+                .bind("quantity", product.getQuantity())
+                .bind("price", product.getPrice())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> new Product(id, product.getName(), product.getDescription(), product.getCategory(),
+                        product.getQuantity(), product.getPrice()));
+    }
+
+    public Mono<Product> findById(Long id) {
+        return client.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Mono<Product> findByName(String name) {
+        return client.sql(SELECT + " WHERE name = :name")
+                .bind("name", name)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Flux<Product> findAll(ProductFilter filter) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql(LIST_QUERIES.get(filter.shape()));
+        if (filter.nameKey() != null) {
+            spec = spec.bind("nameKey", filter.nameKey());
+        }
+        if (filter.category() != null) {
+            spec = spec.bind("category", filter.category().name());
+        }
+
+        return spec.map(ReactiveProductRepository::toProduct).all();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return client.sql("DELETE FROM products WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Product toProduct(Readable row) {
+        return new Product(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                CategoryType.valueOf(row.get("category", String.class)),
+                row.get("quantity", Long.class),
+                row.get("price", BigDecimal.class));
+    }
+}
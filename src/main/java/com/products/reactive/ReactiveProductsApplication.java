@@ -0,0 +1,26 @@
+package com.products.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Entry point of the WebFlux + R2DBC variant of the products API.
+ * <p>
+ * Only this package is scanned, so none of the blocking JPA/JDBC beans are created.
+ * The schema is still owned by {@link com.products.ProductsApplication}, whose component scan
+ * skips this class outside the {@code reactive} profile.
+ */
+@Profile("reactive")
+@SpringBootApplication
+public class ReactiveProductsApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveProductsApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.profiles("reactive")
+				.run(args);
+	}
+
+}
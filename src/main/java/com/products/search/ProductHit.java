@@ -0,0 +1,9 @@
+package com.products.search;
+
+import com.products.domain.CategoryType;
+
+/**
+ * One ranked search result; the full product is one id lookup away.
+ */
+public record ProductHit(Long id, String name, CategoryType category, double score) {
+}
@@ -0,0 +1,196 @@
+package com.products.search;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductChange;
+import com.products.domain.ProductFilter;
+import com.products.domain.ProductJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over product names and descriptions.
+ * <p>
+ * Every query term must match a token exactly or as a prefix. Hits are ranked by summed term
+ * weights: name tokens weigh more than description tokens, and exact tokens more than prefixes.
+ * The index follows {@link ProductChange} events and is rebuilt from the database at startup.
+ */
+@Component
+public class ProductSearchIndex {
+    static final double NAME_WEIGHT = 3;
+    static final double DESCRIPTION_WEIGHT = 1;
+    static final double PREFIX_FACTOR = 0.5;
+
+    private final ProductJdbcRepository jdbcRepository;
+    private final boolean rebuildOnStartup;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    @Autowired
+    public ProductSearchIndex(ProductJdbcRepository jdbcRepository,
+                              @Value("${products.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.jdbcRepository = jdbcRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Re-reads every product, streaming rows instead of loading the table at once.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            jdbcRepository.stream(ProductFilter.of(null, null), this::addUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ProductChange change) {
+        lock.writeLock().lock();
+        try {
+            if (change instanceof ProductChange.Created created) {
+                addUnlocked(created.product());
+            } else if (change instanceof ProductChange.Removed removed) {
+                removeUnlocked(removed.id());
+            } else if (change instanceof ProductChange.CategoryRemoved removed) {
+                documents.values().stream()
+                        .filter(document -> document.category() == removed.category())
+                        .map(Document::id)
+                        .toList()
+                        .forEach(this::removeUnlocked);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductHit> search(String query, CategoryType category, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .map(entry -> documents.get(entry.getKey()).hit(entry.getValue()))
+                    .filter(hit -> category == null || hit.category() == category)
+                    .sorted(Comparator.comparingDouble(ProductHit::score).reversed().thenComparing(ProductHit::id))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> match(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Double>> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            double factor = entry.getKey().equals(term) ? 1 : PREFIX_FACTOR;
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private void addUnlocked(Product product) {
+        removeUnlocked(product.getId());
+
+        Map<String, Double> weights = new HashMap<>();
+        tokenize(product.getDescription()).forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Double::sum));
+        tokenize(product.getName()).forEach(token -> weights.merge(token, NAME_WEIGHT, Double::sum));
+
+        weights.forEach((token, weight) -> postings.computeIfAbsent(token, key -> new HashMap<>()).put(product.getId(), weight));
+        documents.put(product.getId(), new Document(product.getId(), product.getName(), product.getCategory(), weights.keySet()));
+    }
+
+    private void removeUnlocked(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+
+        for (String token : document.tokens()) {
+            Map<Long, Double> ids = postings.get(token);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(Long id, String name, CategoryType category, Set<String> tokens) {
+        Document {
+            tokens = new HashSet<>(tokens);
+        }
+
+        ProductHit hit(double score) {
+            return new ProductHit(id, name, category, score);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.products.search;
+
+import com.products.domain.CategoryType;
+
+/**
+ * One typeahead completion of a product name.
+ */
+public record ProductSuggestion(Long id, String name, CategoryType category) {
+}
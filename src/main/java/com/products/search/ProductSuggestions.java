@@ -0,0 +1,132 @@
+package com.products.search;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductChange;
+import com.products.domain.ProductFilter;
+import com.products.domain.ProductJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over product names, served from one {@link RadixTrie} per category.
+ * <p>
+ * Keys are normalized names, so completion is case-insensitive and ordered like {@code name_key}.
+ * A query without a category merges the per-category results; every name lives in exactly one trie.
+ * Like {@link ProductSearchIndex}, it follows {@link ProductChange} events and is rebuilt at startup.
+ */
+@Component
+public class ProductSuggestions {
+    private static final Comparator<ProductSuggestion> NAME_ORDER = Comparator
+            .comparing((ProductSuggestion suggestion) -> ProductFilter.normalize(suggestion.name()))
+            .thenComparing(ProductSuggestion::id);
+
+    private final ProductJdbcRepository jdbcRepository;
+    private final boolean rebuildOnStartup;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<CategoryType, RadixTrie<ProductSuggestion>> tries = new EnumMap<>(CategoryType.class);
+    private final Map<Long, ProductSuggestion> byId = new HashMap<>();
+
+    @Autowired
+    public ProductSuggestions(ProductJdbcRepository jdbcRepository,
+                              @Value("${products.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.jdbcRepository = jdbcRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        for (CategoryType category : CategoryType.values()) {
+            tries.put(category, new RadixTrie<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            tries.replaceAll((category, trie) -> new RadixTrie<>());
+            byId.clear();
+            jdbcRepository.stream(ProductFilter.of(null, null), this::addUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ProductChange change) {
+        lock.writeLock().lock();
+        try {
+            if (change instanceof ProductChange.Created created) {
+                addUnlocked(created.product());
+            } else if (change instanceof ProductChange.Removed removed) {
+                removeUnlocked(removed.id());
+            } else if (change instanceof ProductChange.CategoryRemoved removed) {
+                tries.put(removed.category(), new RadixTrie<>());
+                byId.values().removeIf(suggestion -> suggestion.category() == removed.category());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Names starting with {@code prefix}, ignoring case, in name order.
+     */
+    public List<ProductSuggestion> suggest(String prefix, CategoryType category, int limit) {
+        String key = ProductFilter.normalize(prefix);
+
+        lock.readLock().lock();
+        try {
+            if (category != null) {
+                return tries.get(category).prefixed(key, limit);
+            }
+
+            List<ProductSuggestion> merged = new ArrayList<>();
+            tries.values().forEach(trie -> merged.addAll(trie.prefixed(key, limit)));
+            merged.sort(NAME_ORDER);
+            return merged.size() > limit ? List.copyOf(merged.subList(0, limit)) : merged;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addUnlocked(Product product) {
+        removeUnlocked(product.getId());
+
+        ProductSuggestion suggestion = new ProductSuggestion(product.getId(), product.getName(), product.getCategory());
+        tries.get(suggestion.category()).put(ProductFilter.normalize(suggestion.name()), suggestion);
+        byId.put(suggestion.id(), suggestion);
+    }
+
+    private void removeUnlocked(Long id) {
+        ProductSuggestion suggestion = byId.remove(id);
+        if (suggestion != null) {
+            tries.get(suggestion.category()).remove(ProductFilter.normalize(suggestion.name()), suggestion);
+        }
+    }
+}
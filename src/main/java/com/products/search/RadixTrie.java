@@ -0,0 +1,232 @@
+package com.products.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Path-compressed prefix tree: every edge carries a whole run of characters, so a set of names
+ * costs roughly one node per distinct branching point instead of one per character.
+ * <p>
+ * Not thread-safe; callers guard it.
+ */
+final class RadixTrie<V> {
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    void put(String key, V value) {
+        Node<V> node = root;
+        String rest = key;
+
+        while (!rest.isEmpty()) {
+            int index = node.childIndex(rest.charAt(0));
+            if (index < 0) {
+                node.insertChild(-index - 1, new Node<>(rest));
+                node = node.children[-index - 1];
+                rest = "";
+                break;
+            }
+
+            Node<V> child = node.children[index];
+            int common = commonPrefix(child.label, rest);
+            if (common < child.label.length()) {
+                child = split(node, index, common);
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+
+        node.add(value);
+        size++;
+    }
+
+    boolean remove(String key, V value) {
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> node = root;
+        String rest = key;
+
+        while (!rest.isEmpty()) {
+            int index = node.childIndex(rest.charAt(0));
+            if (index < 0 || !rest.startsWith(node.children[index].label)) {
+                return false;
+            }
+            path.add(node);
+            node = node.children[index];
+            rest = rest.substring(node.label.length());
+        }
+
+        if (!node.removeValue(value)) {
+            return false;
+        }
+        size--;
+        compact(path, node);
+        return true;
+    }
+
+    /**
+     * Values of all keys starting with {@code prefix}, in key order, at most {@code limit} of them.
+     */
+    List<V> prefixed(String prefix, int limit) {
+        List<V> out = new ArrayList<>(Math.min(limit, 16));
+        Node<V> node = root;
+        String rest = prefix;
+
+        while (!rest.isEmpty()) {
+            int index = node.childIndex(rest.charAt(0));
+            if (index < 0) {
+                return out;
+            }
+
+            Node<V> child = node.children[index];
+            if (child.label.startsWith(rest)) {
+                node = child;
+                break;
+            }
+            if (!rest.startsWith(child.label)) {
+                return out;
+            }
+            node = child;
+            rest = rest.substring(child.label.length());
+        }
+
+        collect(node, limit, out);
+        return out;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static <V> void collect(Node<V> node, int limit, List<V> out) {
+        if (node.values != null) {
+            for (Object value : node.values) {
+                if (out.size() == limit) {
+                    return;
+                }
+                @SuppressWarnings("unchecked")
+                V typed = (V) value;
+                out.add(typed);
+            }
+        }
+        for (Node<V> child : node.children) {
+            if (out.size() == limit) {
+                return;
+            }
+            collect(child, limit, out);
+        }
+    }
+
+    private static <V> Node<V> split(Node<V> parent, int index, int at) {
+        Node<V> child = parent.children[index];
+        Node<V> head = new Node<>(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        head.children = new Node[] { child };
+        parent.children[index] = head;
+        return head;
+    }
+
+    private void compact(List<Node<V>> path, Node<V> node) {
+        for (int i = path.size() - 1; i >= 0 && node != root; i--) {
+            Node<V> parent = path.get(i);
+            if (node.values != null) {
+                return;
+            }
+            if (node.children.length == 0) {
+                parent.removeChild(node);
+            } else if (node.children.length == 1) {
+                Node<V> only = node.children[0];
+                only.label = node.label + only.label;
+                parent.children[parent.childIndex(only.label.charAt(0))] = only;
+                return;
+            } else {
+                return;
+            }
+            node = parent;
+        }
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node<V> {
+        @SuppressWarnings("rawtypes")
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+        private Node<V>[] children;
+        // a single value is stored as a one-element array; names are almost always unique
+        private Object[] values;
+
+        @SuppressWarnings("unchecked")
+        Node(String label) {
+            this.label = label;
+            this.children = NO_CHILDREN;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int at, Node<V> child) {
+            Node<V>[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            grown[at] = child;
+            children = grown;
+        }
+
+        void removeChild(Node<V> child) {
+            int at = childIndex(child.label.charAt(0));
+            Node<V>[] shrunk = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, at + 1, shrunk, at, children.length - at - 1);
+            children = shrunk;
+        }
+
+        void add(V value) {
+            if (values == null) {
+                values = new Object[] { value };
+            } else {
+                values = Arrays.copyOf(values, values.length + 1);
+                values[values.length - 1] = value;
+            }
+        }
+
+        boolean removeValue(V value) {
+            if (values == null) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equals(value)) {
+                    if (values.length == 1) {
+                        values = null;
+                    } else {
+                        Object[] shrunk = new Object[values.length - 1];
+                        System.arraycopy(values, 0, shrunk, 0, i);
+                        System.arraycopy(values, i + 1, shrunk, i, values.length - i - 1);
+                        values = shrunk;
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.products.singleflight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses concurrent calls with the same key into one: the first caller runs the call and the
+ * others wait for its outcome, value or exception. A caller that waits longer than {@code timeout}
+ * stops waiting and runs the call itself.
+ * <p>
+ * Nothing is kept once the call completes, so this is not a cache; later callers start a new call.
+ * Calls are counted in {@code products.single-flight}, tagged by operation and by whether the caller
+ * ran the call ({@code leader}), shared it ({@code coalesced}) or gave up waiting ({@code timed_out}).
+ */
+public class SingleFlight {
+    static final String LEADER = "leader";
+    static final String COALESCED = "coalesced";
+    static final String TIMED_OUT = "timed_out";
+
+    private final Map<Object, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final long timeoutNanos;
+
+    public SingleFlight(MeterRegistry registry, Duration timeout) {
+        this.registry = registry;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public Object execute(String operation, Object key, Call call) throws Throwable {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = calls.putIfAbsent(key, mine);
+
+        if (inFlight == null) {
+            count(operation, LEADER);
+            try {
+                Object result = call.call();
+                // Removed before completing, so nobody joins a call that has already returned.
+                calls.remove(key, mine);
+                mine.complete(result);
+                return result;
+            } catch (Throwable ex) {
+                calls.remove(key, mine);
+                mine.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        try {
+            Object result = inFlight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            count(operation, COALESCED);
+            return result;
+        } catch (ExecutionException ex) {
+            count(operation, COALESCED);
+            throw ex.getCause();
+        } catch (TimeoutException ex) {
+            count(operation, TIMED_OUT);
+            return call.call();
+        }
+    }
+
+    int inFlight() {
+        return calls.size();
+    }
+
+    private void count(String operation, String call) {
+        registry.counter("products.single-flight", "operation", operation, "call", call).increment();
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        Object call() throws Throwable;
+    }
+}
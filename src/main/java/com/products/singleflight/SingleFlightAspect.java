@@ -0,0 +1,45 @@
+package com.products.singleflight;
+
+import com.products.datasource.PrimaryPin;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies {@link SingleFlight} to {@link Coalesced} methods, keyed by method and arguments. Calls pinned
+ * to the primary ({@link PrimaryPin}) never share a replica read.
+ * <p>
+ * Runs before the transaction interceptor, so waiting callers hold no transaction or connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "products.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+public class SingleFlightAspect {
+    private final SingleFlight flights;
+
+    @Autowired
+    public SingleFlightAspect(MeterRegistry registry,
+                              @Value("${products.single-flight.timeout:PT2S}") Duration timeout) {
+        this.flights = new SingleFlight(registry, timeout);
+    }
+
+    @Around("@annotation(com.products.singleflight.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        List<Object> key = Arrays.asList(joinPoint.getSignature().toLongString(), Arrays.asList(joinPoint.getArgs()),
+                PrimaryPin.isPinned());
+        return flights.execute(operation, key, joinPoint::proceed);
+    }
+}
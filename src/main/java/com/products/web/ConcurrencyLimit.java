@@ -0,0 +1,100 @@
+package com.products.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit in the style of a gradient limiter.
+ * <p>
+ * Latencies are averaged over windows of {@code windowSize} requests. When a window is slower than
+ * the long-term average by more than {@link #TOLERANCE}, the limit shrinks in proportion (at most by
+ * half per window); otherwise it grows by the square root of the limit, as long as the limit is being
+ * used. Server errors are taken as overload and cut the limit multiplicatively, as in AIMD.
+ */
+final class ConcurrencyLimit {
+    static final double TOLERANCE = 1.5;
+    static final double BACKOFF = 0.9;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_SMOOTHING = 0.05;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private volatile double limit;
+
+    // guarded by this
+    private double longLatency;
+    private long windowSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int windowSize) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Takes a slot without waiting.
+     *
+     * @return false when the limit is reached
+     */
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives the slot back and records how the request went.
+     */
+    void release(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        if (overloaded) {
+            backOff();
+        } else {
+            sample(latencyNanos, current);
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void backOff() {
+        limit = Math.max(minLimit, limit * BACKOFF);
+    }
+
+    private synchronized void sample(long latencyNanos, int inFlightAtRelease) {
+        windowSum += latencyNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+        if (++windowCount < windowSize) {
+            return;
+        }
+
+        double shortLatency = (double) windowSum / windowCount;
+        longLatency = longLatency == 0 ? shortLatency : longLatency * (1 - LONG_SMOOTHING) + shortLatency * LONG_SMOOTHING;
+        if (longLatency > 2 * shortLatency) {
+            // Latency has recovered from a slow period: let the baseline catch up faster than the average would.
+            longLatency = 2 * shortLatency;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double target = limit * gradient + Math.sqrt(limit);
+        boolean used = windowMaxInFlight >= limit / 2;
+        if (target < limit || used) {
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+        }
+
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+    }
+}
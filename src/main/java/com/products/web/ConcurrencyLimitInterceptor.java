@@ -0,0 +1,110 @@
+package com.products.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Load shedding for {@link ProductController}: reads and writes each get an adaptive
+ * {@link ConcurrencyLimit}, and a request over its limit is answered with a 503 and
+ * {@code Retry-After} straight away instead of queueing for Tomcat threads and connections.
+ * Writes are told apart by handler method, so reads sent as {@code POST}, such as
+ * {@code POST /products/lookup}, count as reads.
+ * <p>
+ * A streamed response keeps its slot until the stream completes. Publishes
+ * {@code products.concurrency.limit} and {@code products.concurrency.in-flight} gauges and the
+ * {@code products.concurrency.shed} counter, tagged by {@code group}.
+ */
+@Component
+@ConditionalOnProperty(name = "products.concurrency.enabled", havingValue = "true")
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+    private static final String LIMIT = ConcurrencyLimitInterceptor.class.getName() + ".limit";
+    private static final String STARTED = ConcurrencyLimitInterceptor.class.getName() + ".started";
+    private static final Set<String> WRITES =
+            Set.of("createProduct", "createProducts", "reserve", "release", "remove", "removeAll");
+
+    private final Group reads;
+    private final Group writes;
+
+    @Autowired
+    public ConcurrencyLimitInterceptor(MeterRegistry registry,
+                                       @Value("${products.concurrency.read.initial-limit:50}") int readInitialLimit,
+                                       @Value("${products.concurrency.read.max-limit:500}") int readMaxLimit,
+                                       @Value("${products.concurrency.write.initial-limit:10}") int writeInitialLimit,
+                                       @Value("${products.concurrency.write.max-limit:100}") int writeMaxLimit,
+                                       @Value("${products.concurrency.min-limit:1}") int minLimit,
+                                       @Value("${products.concurrency.window-size:50}") int windowSize) {
+        this.reads = new Group("read", new ConcurrencyLimit(readInitialLimit, minLimit, readMaxLimit, windowSize), registry);
+        this.writes = new Group("write", new ConcurrencyLimit(writeInitialLimit, minLimit, writeMaxLimit, windowSize), registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // An async dispatch finishes a request that already holds its slot.
+        if (request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod method)
+                || method.getBeanType() != ProductController.class) {
+            return true;
+        }
+
+        Group group = WRITES.contains(method.getMethod().getName()) ? writes : reads;
+        if (!group.limit().tryAcquire()) {
+            group.shed().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return false;
+        }
+
+        request.setAttribute(LIMIT, group.limit());
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(LIMIT) instanceof ConcurrencyLimit limit)) {
+            return;
+        }
+
+        request.removeAttribute(LIMIT);
+        long latency = System.nanoTime() - (long) request.getAttribute(STARTED);
+        limit.release(latency, ex != null || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    ConcurrencyLimit readLimit() {
+        return reads.limit();
+    }
+
+    ConcurrencyLimit writeLimit() {
+        return writes.limit();
+    }
+
+    private record Group(ConcurrencyLimit limit, Counter shed) {
+        Group(String name, ConcurrencyLimit limit, MeterRegistry registry) {
+            this(limit, Counter.builder("products.concurrency.shed").tag("group", name).register(registry));
+            Gauge.builder("products.concurrency.limit", limit, ConcurrencyLimit::limit).tag("group", name).register(registry);
+            Gauge.builder("products.concurrency.in-flight", limit, ConcurrencyLimit::inFlight).tag("group", name).register(registry);
+        }
+    }
+}
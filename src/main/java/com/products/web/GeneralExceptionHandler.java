@@ -1,5 +1,9 @@
 package com.products.web;
 
+import com.products.domain.InsufficientStockException;
+import com.products.domain.InvalidRequestException;
+import com.products.domain.WriteBehindFullException;
+import com.products.domain.WriteBehindTimeoutException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpHeaders;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @ControllerAdvice
 public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
@@ -25,6 +30,39 @@ public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    private ResponseEntity<Object> handleInsufficientStock(InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(WriteBehindFullException.class)
+    private ResponseEntity<Object> handleWriteBehindFull(WriteBehindFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    /**
+     * The creation may still be committed, so the response points at its tracking URL.
+     */
+    @ExceptionHandler(WriteBehindTimeoutException.class)
+    private ResponseEntity<Object> handleWriteBehindTimeout(WriteBehindTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/products/creations/{trackingId}")
+                        .buildAndExpand(ex.getTrackingId())
+                        .toUri())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    private ResponseEntity<Object> handleInvalidRequest(InvalidRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(EmptyResultDataAccessException.class)
     private ResponseEntity<Object> handleEmptyResultDataAccessException(EmptyResultDataAccessException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
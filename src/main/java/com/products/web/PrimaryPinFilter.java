@@ -0,0 +1,92 @@
+package com.products.web;
+
+import com.products.datasource.PrimaryPin;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read-your-writes on top of replica routing: a request whose write commits hands the client a
+ * short-lived cookie, and reads carrying it go to the primary until replication has caught up.
+ * Requests that only read, whatever their method, leave the client unpinned.
+ */
+@Component
+@ConditionalOnProperty(name = "products.replicas.enabled", havingValue = "true")
+public class PrimaryPinFilter extends OncePerRequestFilter {
+    static final String COOKIE = "products-primary";
+
+    private final Duration pinAfterWrite;
+
+    @Autowired
+    public PrimaryPinFilter(@Value("${products.replicas.pin-after-write:PT2S}") Duration pinAfterWrite) {
+        this.pinAfterWrite = pinAfterWrite;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return pinAfterWrite.isZero() || !request.getRequestURI().startsWith("/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Set as the write commits, which is before the response body is written.
+        AtomicBoolean written = new AtomicBoolean();
+        PrimaryPin.listenForWrites(() -> {
+            if (written.compareAndSet(false, true)) {
+                response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, "1")
+                        .path("/products")
+                        .maxAge(Math.max(1, pinAfterWrite.toSeconds()))
+                        .httpOnly(true)
+                        .build()
+                        .toString());
+            }
+        });
+        try {
+            filterPinned(request, response, filterChain);
+        } finally {
+            PrimaryPin.stopListening();
+        }
+    }
+
+    private void filterPinned(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!hasPinCookie(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PrimaryPin.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryPin.unpin();
+        }
+    }
+
+    private static boolean hasPinCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
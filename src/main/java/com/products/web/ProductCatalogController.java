@@ -0,0 +1,149 @@
+package com.products.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.products.domain.BatchResult;
+import com.products.domain.Product;
+import com.products.domain.ProductBatchService;
+import com.products.domain.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Whole-catalog transfer between environments as CSV or NDJSON.
+ * <p>
+ * The export writes rows straight from the database cursor to the response and the import hands
+ * rows to {@link ProductBatchService} as they are parsed, so neither holds the catalog in memory.
+ * Both speak gzip when the client asks for it ({@code Accept-Encoding}, {@code Content-Encoding}).
+ * Imported rows get new ids; an {@code id} column is ignored. A syntax error ends the import: the rows
+ * before it stay imported and the result is marked {@code truncated}.
+ */
+@RestController
+@RequestMapping("/products")
+public class ProductCatalogController {
+    static final String TEXT_CSV_VALUE = "text/csv";
+    static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addNumberColumn("id")
+            .addColumn("name")
+            .addColumn("description")
+            .addColumn("category")
+            .addNumberColumn("quantity")
+            .addNumberColumn("price")
+            .build()
+            .withHeader();
+
+    private static final String GZIP = "gzip";
+
+    private final ProductService service;
+    private final ProductBatchService batchService;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectReader ndjsonReader;
+    private final ObjectWriter csvWriter;
+    private final ObjectReader csvReader;
+
+    @Autowired
+    public ProductCatalogController(ProductService service, ProductBatchService batchService, ObjectMapper objectMapper) {
+        this.service = service;
+        this.batchService = batchService;
+        this.ndjsonWriter = objectMapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.ndjsonReader = objectMapper.readerFor(Product.class);
+
+        CsvMapper csvMapper = CsvMapper.builder().build();
+        this.csvWriter = csvMapper.writerFor(Product.class)
+                .with(CSV_SCHEMA)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.csvReader = csvMapper.readerFor(Product.class).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return export(ndjsonWriter, MediaType.APPLICATION_NDJSON, acceptEncoding);
+    }
+
+    @GetMapping(path = "/export", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return export(csvWriter, TEXT_CSV, acceptEncoding);
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResult> importNdjson(
+            InputStream body,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding
+    ) throws IOException {
+        return importAll(ndjsonReader, body, contentEncoding);
+    }
+
+    @PostMapping(path = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<BatchResult> importCsv(
+            InputStream body,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding
+    ) throws IOException {
+        return importAll(csvReader, body, contentEncoding);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ObjectWriter writer, MediaType contentType, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains(GZIP);
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            try (SequenceWriter rows = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(target)) {
+                service.stream(null, null, product -> {
+                    try {
+                        rows.write(product);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    private ResponseEntity<BatchResult> importAll(ObjectReader reader, InputStream body, String contentEncoding)
+            throws IOException {
+        InputStream source = GZIP.equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 8192) : body;
+
+        try (MappingIterator<Product> products = reader.readValues(source)) {
+            return ResponseEntity.ok(batchService.createAll(ProductRows.of(products)));
+        }
+    }
+}
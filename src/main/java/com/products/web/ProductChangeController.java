@@ -0,0 +1,30 @@
+package com.products.web;
+
+import com.products.outbox.ProductChangeStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/products/changes")
+public class ProductChangeController {
+    private final ProductChangeStream stream;
+
+    @Autowired
+    public ProductChangeController(ProductChangeStream stream) {
+        this.stream = stream;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        return stream.subscribe(since != null ? since : lastEventId);
+    }
+}
@@ -1,54 +1,240 @@
 package com.products.web;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.products.domain.BatchResult;
+import com.products.domain.CategoryFacet;
 import com.products.domain.CategoryType;
+import com.products.domain.DeleteResult;
+import com.products.domain.LookupRequest;
 import com.products.domain.Product;
+import com.products.domain.ProductBatchService;
+import com.products.domain.ProductCreation;
+import com.products.domain.ProductField;
+import com.products.domain.ProductLookup;
+import com.products.domain.ProductPage;
 import com.products.domain.ProductService;
+import com.products.domain.ProductVersion;
+import com.products.domain.ProductView;
+import com.products.domain.ProductWriteBehind;
+import com.products.domain.StockService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final ProductService service;
+    private final ProductBatchService batchService;
+    private final StockService stockService;
+    private final Optional<ProductWriteBehind> writeBehind;
+    private final ObjectReader productReader;
+    private final ObjectWriter productWriter;
 
     @Autowired
-    public ProductController(ProductService service) {
+    public ProductController(ProductService service, ProductBatchService batchService, StockService stockService,
+                             Optional<ProductWriteBehind> writeBehind, ObjectMapper objectMapper) {
         this.service = service;
+        this.batchService = batchService;
+        this.stockService = stockService;
+        this.writeBehind = writeBehind;
+        this.productReader = objectMapper.readerFor(Product.class);
+        this.productWriter = objectMapper.writerFor(Product.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
+    /**
+     * With write-behind enabled, the product is committed in a group with other creations; a
+     * {@code Prefer: respond-async} request gets {@code 202} and a tracking URL instead of waiting for it.
+     */
     @PostMapping
-    public ResponseEntity<Product> createProduct(@RequestBody @Valid Product product) {
-        Product productCreated = service.create(product);
+    public ResponseEntity<?> createProduct(@RequestBody @Valid Product product,
+                                           @RequestHeader(name = PREFER, required = false) String prefer) {
+        if (writeBehind.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(service.create(product));
+        }
+        if (prefer == null || !prefer.toLowerCase(Locale.ROOT).contains(RESPOND_ASYNC)) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(writeBehind.get().create(product));
+        }
+
+        ProductCreation creation = writeBehind.get().submit(product);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/creations/{trackingId}")
+                        .buildAndExpand(creation.trackingId())
+                        .toUri())
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(creation);
+    }
+
+    @GetMapping("/creations/{trackingId}")
+    public ResponseEntity<ProductCreation> getCreation(@PathVariable("trackingId") String trackingId) {
+        return writeBehind.flatMap(queue -> queue.status(trackingId))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(productCreated);
+    @PostMapping(path = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<BatchResult> createProducts(InputStream body) throws IOException {
+        try (MappingIterator<Product> products = productReader.readValues(body)) {
+            return ResponseEntity.ok(batchService.createAll(ProductRows.of(products)));
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable("id") Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable("id") Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> etag = service.version(id).map(ProductController::etag);
+            if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                return notModified(etag.get());
+            }
+        }
+
         return service.get(id)
-                .map(ResponseEntity::ok)
+                .map(ProductController::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<Product> getProductByName(@PathVariable("name") String name) {
+    public ResponseEntity<Product> getProductByName(@PathVariable("name") String name, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> etag = service.versionByName(name).map(ProductController::etag);
+            if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                return notModified(etag.get());
+            }
+        }
+
         return service.getByName(name)
+                .map(ProductController::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(path = "/{id}", params = "fields")
+    public ResponseEntity<ProductView> getProductById(@PathVariable("id") Long id, @RequestParam("fields") String fields) {
+        return service.get(id, ProductField.parse(fields))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(path = "/name/{name}", params = "fields")
+    public ResponseEntity<ProductView> getProductByName(@PathVariable("name") String name, @RequestParam("fields") String fields) {
+        return service.getByName(name, ProductField.parse(fields))
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping
     public ResponseEntity<List<Product>> list(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) CategoryType category,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        if (limit == null && cursor == null) {
+            return page(new ProductPage<>(service.list(name, category), null), 0, ProductController::versionKey, request);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        return page(service.list(name, category, cursor, pageSize), pageSize, ProductController::versionKey, request);
+    }
+
+    /**
+     * Products by id, with chunked {@code IN} queries; ids that do not exist are listed as missing.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookup> lookup(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(service.lookup(new LookupRequest(ids, null)));
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookup> lookup(@RequestBody LookupRequest request) {
+        return ResponseEntity.ok(service.lookup(request));
+    }
+
+    /**
+     * Sparse fieldset listing: only the selected columns are read, straight into {@link ProductView}s.
+     */
+    @GetMapping(params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductView>> list(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) CategoryType category,
+            @RequestParam("fields") String fields,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        // Views carry no version, so their content stands in for it in the ETag.
+        if (limit == null && cursor == null) {
+            return page(new ProductPage<>(service.list(name, category, selected), null), 0, ProductView::toString, request);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        return page(service.list(name, category, selected, cursor, pageSize), pageSize, ProductView::toString, request);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) CategoryType category
     ) {
-        List<Product> products = service.list(name, category);
-        return ResponseEntity.ok(products);
+        StreamingResponseBody body = out -> service.stream(name, category, product -> {
+            try {
+                productWriter.writeValue(out, product);
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<List<CategoryFacet>> facets(@RequestParam(required = false) String name) {
+        return ResponseEntity.ok(service.facets(name));
+    }
+
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<Void> reserve(@PathVariable("id") Long id, @RequestParam(defaultValue = "1") long amount) {
+        stockService.reserve(id, amount);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<Void> release(@PathVariable("id") Long id, @RequestParam(defaultValue = "1") long amount) {
+        stockService.release(id, amount);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
@@ -56,4 +242,73 @@ public class ProductController {
         service.remove(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<DeleteResult> removeAll(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(service.removeAll(ids));
+    }
+
+    @DeleteMapping(params = "category")
+    public ResponseEntity<DeleteResult> removeAll(@RequestParam("category") CategoryType category) {
+        return ResponseEntity.ok(service.removeAll(category));
+    }
+
+    /**
+     * Answers with the page, or {@code 304} when {@code If-None-Match} has its ETag. The ETag is a digest
+     * of the {@code key} of every row on the page and of the next cursor, so each page revalidates on its
+     * own and no query beyond the page itself is needed.
+     */
+    private static <T> ResponseEntity<List<T>> page(ProductPage<T> page, int pageSize, Function<T, String> key,
+                                                    WebRequest request) {
+        String etag = etag(page, key);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        if (page.next() == null) {
+            return ResponseEntity.ok().eTag(etag).body(page.items());
+        }
+
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("limit", pageSize)
+                .replaceQueryParam("cursor", page.next())
+                .toUriString();
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page.items());
+    }
+
+    private static ResponseEntity<Product> ok(Product product) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (product.getVersion() != null) {
+            response.eTag(etag(new ProductVersion(product.getId(), product.getVersion())));
+        }
+        return response.body(product);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * ETags are weak: the same resource is served as JSON, Smile or CBOR, possibly compressed, and
+     * Tomcat only compresses responses without a strong ETag.
+     */
+    private static String etag(ProductVersion version) {
+        return "W/\"" + version.id() + "-" + version.version() + "\"";
+    }
+
+    private static <T> String etag(ProductPage<T> page, Function<T, String> key) {
+        StringBuilder rows = new StringBuilder();
+        for (T item : page.items()) {
+            rows.append(key.apply(item)).append('\n');
+        }
+        rows.append(page.next());
+        return "W/\"" + DigestUtils.md5DigestAsHex(rows.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static String versionKey(Product product) {
+        return product.getId() + "-" + product.getVersion();
+    }
 }
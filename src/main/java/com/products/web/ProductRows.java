@@ -0,0 +1,55 @@
+package com.products.web;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.products.domain.InvalidRequestException;
+import com.products.domain.MalformedProductException;
+import com.products.domain.Product;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Products of a bulk upload, parsed one at a time for {@link com.products.domain.ProductBatchService}.
+ * <p>
+ * A row that cannot be mapped to a product is a {@link MalformedProductException}, and the rows after it
+ * can still be read. A syntax error is an {@link InvalidRequestException}: nothing after it can be read.
+ */
+final class ProductRows implements Iterator<Product> {
+    private final MappingIterator<Product> products;
+    private int index;
+
+    private ProductRows(MappingIterator<Product> products) {
+        this.products = products;
+    }
+
+    static Iterator<Product> of(MappingIterator<Product> products) {
+        return new ProductRows(products);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return products.hasNextValue();
+        } catch (IOException ex) {
+            throw unreadable(ex);
+        }
+    }
+
+    @Override
+    public Product next() {
+        try {
+            return products.nextValue();
+        } catch (JsonMappingException ex) {
+            throw new MalformedProductException(ex.getOriginalMessage(), ex);
+        } catch (IOException ex) {
+            throw unreadable(ex);
+        } finally {
+            index++;
+        }
+    }
+
+    private InvalidRequestException unreadable(IOException ex) {
+        return new InvalidRequestException("Input cannot be read from index " + index, ex);
+    }
+}
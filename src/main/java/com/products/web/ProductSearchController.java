@@ -0,0 +1,64 @@
+package com.products.web;
+
+import com.products.domain.CategoryType;
+import com.products.domain.InvalidRequestException;
+import com.products.search.ProductHit;
+import com.products.search.ProductSearchIndex;
+import com.products.search.ProductSuggestion;
+import com.products.search.ProductSuggestions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/products")
+public class ProductSearchController {
+    private static final int MAX_HITS = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final ProductSearchIndex index;
+    private final ProductSuggestions suggestions;
+
+    @Autowired
+    public ProductSearchController(ProductSearchIndex index, ProductSuggestions suggestions) {
+        this.index = index;
+        this.suggestions = suggestions;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductHit>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) CategoryType category,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (query.isBlank()) {
+            throw new InvalidRequestException("q must not be blank");
+        }
+        if (limit < 1 || limit > MAX_HITS) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_HITS);
+        }
+
+        return ResponseEntity.ok(index.search(query, category, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) CategoryType category,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (prefix.isBlank()) {
+            throw new InvalidRequestException("prefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return ResponseEntity.ok(suggestions.suggest(prefix, category, limit));
+    }
+}
@@ -0,0 +1,147 @@
+package com.products.datasource;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Read replica routing integration tests, with a second H2 database standing in for the replica
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "products.replicas.enabled=true",
+        "products.replicas.urls=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "products.replicas.pin-after-write=PT5S"
+})
+public class ReadReplicaRoutingTest {
+    private static final DataSource REPLICA = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void importProducts() {
+        new ResourceDatabasePopulator(new ClassPathResource("products_schema.sql")).execute(REPLICA);
+        new JdbcTemplate(REPLICA).update("INSERT INTO products (id, name, description, category, quantity, price) "
+                + "VALUES (1, 'Replica 001', 'Replica 001 description.', 'SPORT', 1, 1.00)");
+    }
+
+    @AfterEach
+    public void removeProducts() {
+        new ResourceDatabasePopulator(new ClassPathResource("remove_products.sql")).execute(REPLICA);
+        new ResourceDatabasePopulator(new ClassPathResource("remove_products.sql")).execute(primaryDataSource);
+    }
+
+    @Test
+    public void replicaPools_ReportConnectionMetrics() {
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica-0").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+    }
+
+    @Test
+    public void listProducts_ReadsFromReplica() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/products?fields=name", String.class);
+
+        assertThat(response.getBody()).contains("Replica 001");
+    }
+
+    @Test
+    public void listProducts_AfterWrite_ReadsFromPrimaryWhilePinned() {
+        ResponseEntity<String> created = restTemplate.postForEntity("/products", PRODUCT, String.class);
+        String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, cookie.substring(0, cookie.indexOf(';')));
+        ResponseEntity<String> pinned = restTemplate.exchange("/products?fields=name", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        ResponseEntity<String> unpinned = restTemplate.getForEntity("/products?fields=name", String.class);
+
+        assertThat(cookie).startsWith("products-primary=");
+        assertThat(pinned.getBody()).contains(PRODUCT.getName()).doesNotContain("Replica 001");
+        assertThat(unpinned.getBody()).contains("Replica 001").doesNotContain(PRODUCT.getName());
+    }
+
+    @Test
+    public void lookupProducts_WithPost_DoesNotPinToPrimary() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = restTemplate.postForEntity("/products/lookup",
+                new HttpEntity<>("{\"ids\":[1]}", headers), String.class);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getHeaders().get(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    public void removeProduct_WhenMissing_DoesNotPinToPrimary() {
+        ResponseEntity<String> response = restTemplate.exchange("/products/999", HttpMethod.DELETE, null, String.class);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(404);
+        assertThat(response.getHeaders().get(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    public void streamProducts_AfterWrite_ReadsFromPrimaryWhilePinned() {
+        ResponseEntity<String> created = restTemplate.postForEntity("/products", PRODUCT, String.class);
+        String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, cookie.substring(0, cookie.indexOf(';')));
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> pinned = restTemplate.exchange("/products", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(pinned.getBody()).contains(PRODUCT.getName()).doesNotContain("Replica 001");
+    }
+
+    @Test
+    public void getProduct_OnCacheMiss_LoadsFromPrimary() {
+        new JdbcTemplate(primaryDataSource).update("INSERT INTO products (id, name, description, category, quantity, price, version) "
+                + "VALUES (1, 'Primary 001', 'Primary 001 description.', 'SPORT', 1, 1.00, 1)");
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/products/1", String.class);
+
+        assertThat(response.getBody()).contains("Primary 001").doesNotContain("Replica 001");
+    }
+
+    @Test
+    public void getProduct_AfterReplicaList_DoesNotSeeReplicaRowsThroughSecondLevelCache() {
+        new JdbcTemplate(REPLICA).update("INSERT INTO products (id, name, description, category, quantity, price) "
+                + "VALUES (2, 'Replica 002', 'Replica 002 description.', 'SPORT', 1, 1.00)");
+        new JdbcTemplate(primaryDataSource).update("INSERT INTO products (id, name, description, category, quantity, price, version) "
+                + "VALUES (2, 'Primary 002', 'Primary 002 description.', 'SPORT', 1, 1.00, 1)");
+
+        ResponseEntity<String> listed = restTemplate.getForEntity("/products", String.class);
+        ResponseEntity<String> response = restTemplate.getForEntity("/products/2", String.class);
+
+        assertThat(listed.getBody()).contains("Replica 002");
+        assertThat(response.getBody()).contains("Primary 002").doesNotContain("Replica 002");
+    }
+}
@@ -0,0 +1,48 @@
+package com.products.datasource;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.products.domain.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * With {@code products.hibernate-cache.enabled=false} Hibernate must not fall back to caching on its own
+ */
+@DataJpaTest(properties = {
+        "products.hibernate-cache.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(SecondLevelCacheConfiguration.class)
+@Sql(scripts = "/import_products.sql")
+@Sql(scripts = "/remove_products.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SecondLevelCacheDisabledTest {
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void findProduct_WhenDisabled_AlwaysQueries() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        repository.findById(P1.getId());
+
+        long before = statistics.getPrepareStatementCount();
+        repository.findById(P1.getId());
+
+        assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isFalse();
+        assertThat(statistics.getPrepareStatementCount() - before).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheRegionNames()).isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+package com.products.datasource;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductJdbcRepository;
+import com.products.domain.ProductOutbox;
+import com.products.domain.ProductRepository;
+import com.products.domain.ProductSecondLevelCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Second-level and natural-id cache tests; each repository call commits on its own, as in production
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ SecondLevelCacheConfiguration.class, ProductJdbcRepository.class, ProductOutbox.class, ProductSecondLevelCache.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Sql(scripts = "/import_products.sql")
+@Sql(scripts = "/remove_products.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SecondLevelCacheTest {
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductJdbcRepository jdbcRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void findProduct_WhenWarm_RunsNoStatements() {
+        repository.findById(P1.getId());
+        repository.findByName(P2.getName());
+
+        assertThat(statements(() -> repository.findById(P1.getId()))).isZero();
+        assertThat(statements(() -> repository.findByName(P2.getName()))).isZero();
+        assertThat(repository.findByName(P2.getName())).get().extracting(Product::getId).isEqualTo(P2.getId());
+        assertThat(SecondLevelCacheConfiguration.hitRatio(statistics, Product.CACHE_REGION)).isGreaterThan(0.5);
+        assertThat(SecondLevelCacheConfiguration.hitRatio(statistics, Product.NAME_CACHE_REGION)).isGreaterThan(0.5);
+    }
+
+    @Test
+    public void findProduct_AfterRemove_IsNotServedFromCache() {
+        repository.findById(P1.getId());
+        repository.findByName(P1.getName());
+
+        jdbcRepository.deleteAll(List.of(P1.getId()));
+
+        assertThat(repository.findById(P1.getId())).isEmpty();
+        assertThat(repository.findByName(P1.getName())).isEmpty();
+    }
+
+    @Test
+    @Sql(scripts = "/remove_products.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findProductByName_AfterRemoveAndCreate_ResolvesNewProduct() {
+        Product removed = repository.save(product("Recreated"));
+        repository.findByName("Recreated");
+
+        jdbcRepository.deleteAll(List.of(removed.getId()));
+        Product created = repository.save(product("Recreated"));
+
+        assertThat(repository.findByName("Recreated")).get().extracting(Product::getId).isEqualTo(created.getId());
+    }
+
+    @Test
+    public void findProduct_AfterStockUpdate_EvictsOnlyThatProduct() {
+        long quantity = repository.findById(P1.getId()).orElseThrow().getQuantity();
+        repository.findById(P2.getId());
+
+        jdbcRepository.decrementQuantity(P1.getId(), 1);
+
+        assertThat(statements(() -> repository.findById(P2.getId()))).isZero();
+        assertThat(repository.findById(P1.getId())).get().extracting(Product::getQuantity).isEqualTo(quantity - 1);
+    }
+
+    @Test
+    public void hitRatios_AreRegisteredPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new SecondLevelCacheConfiguration().secondLevelCacheHitRatios(entityManagerFactory).bindTo(registry);
+
+        repository.findById(P3.getId());
+        repository.findById(P3.getId());
+
+        assertThat(registry.get("products.hibernate.cache.hit.ratio").tag("region", Product.CACHE_REGION).gauge().value())
+                .isEqualTo(0.5);
+        assertThat(registry.get("products.hibernate.cache.hit.ratio").tag("region", Product.NAME_CACHE_REGION).gauge().value())
+                .isNaN();
+    }
+
+    private static Product product(String name) {
+        return new Product(name, name + " description.", CategoryType.SPORT, 1L, new BigDecimal("1.00"));
+    }
+
+    private long statements(Supplier<?> lookup) {
+        long before = statistics.getPrepareStatementCount();
+        lookup.get();
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
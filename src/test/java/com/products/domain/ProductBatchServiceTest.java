@@ -0,0 +1,201 @@
+package com.products.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk creation unit tests
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductBatchServiceTest {
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ProductJdbcRepository jdbcRepository;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private ProductBatchService service;
+
+    @BeforeEach
+    public void beforeEach() {
+        service = new ProductBatchService(jdbcRepository, new ProductCache(100, Duration.ofMinutes(1)), VALIDATOR, events, 2, 100);
+    }
+
+    private static Product product(String name) {
+        return new Product(name, name + " description.", CategoryType.SPORT, 1L, new BigDecimal("10.00"));
+    }
+
+    private void assignIds() {
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setId(ids.incrementAndGet()));
+            return null;
+        }).when(jdbcRepository).insertAll(anyList());
+    }
+
+    @Test
+    public void createProducts_WithValidData_InsertsInChunks() {
+        assignIds();
+        when(jdbcRepository.findExistingNames(any())).thenReturn(Set.of());
+
+        BatchResult sut = service.createAll(List.of(product("A"), product("B"), product("C")).iterator());
+
+        assertThat(sut.created()).isEqualTo(3);
+        assertThat(sut.errors()).isEmpty();
+        verify(jdbcRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    public void createProducts_WithInvalidAndDuplicatedData_ReportsEachItem() {
+        assignIds();
+        when(jdbcRepository.findExistingNames(any())).thenReturn(Set.of("Taken"));
+
+        BatchResult sut = service.createAll(List.of(
+                new Product(), product("New"), product("NEW"), product("taken")).iterator());
+
+        assertThat(sut.created()).isEqualTo(1);
+        assertThat(sut.errors())
+                .extracting(BatchError::index, BatchError::reason)
+                .containsExactly(
+                        tuple(0, BatchError.Reason.INVALID),
+                        tuple(2, BatchError.Reason.CONFLICT),
+                        tuple(3, BatchError.Reason.CONFLICT));
+    }
+
+    @Test
+    public void createProducts_WhenBatchLosesRace_FallsBackToSingleInserts() {
+        Product a = product("A");
+        Product b = product("B");
+        when(jdbcRepository.findExistingNames(any())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.contains(b)) {
+                throw new DuplicateKeyException("Duplicate entry 'B'");
+            }
+            return null;
+        }).when(jdbcRepository).insertAll(anyList());
+
+        BatchResult sut = service.createAll(List.of(a, b).iterator());
+
+        assertThat(sut.created()).isEqualTo(1);
+        assertThat(sut.errors()).extracting(BatchError::index).containsExactly(1);
+        verify(jdbcRepository).insertAll(List.of(a));
+    }
+
+    @Test
+    public void createProducts_WithOtherConstraintFailure_ReportsItAsInvalid() {
+        Product a = product("A");
+        Product b = product("B");
+        when(jdbcRepository.findExistingNames(any())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.contains(b)) {
+                throw new DataIntegrityViolationException("Data too long for column 'description'");
+            }
+            return null;
+        }).when(jdbcRepository).insertAll(anyList());
+
+        BatchResult sut = service.createAll(List.of(a, b).iterator());
+
+        assertThat(sut.created()).isEqualTo(1);
+        assertThat(sut.errors()).extracting(BatchError::index, BatchError::reason)
+                .containsExactly(tuple(1, BatchError.Reason.INVALID));
+    }
+
+    @Test
+    public void createProducts_WithUnreadableItem_ReportsItAndGoesOn() {
+        assignIds();
+        when(jdbcRepository.findExistingNames(any())).thenReturn(Set.of());
+        Iterator<Product> products = List.of(product("A"), product("B")).iterator();
+        Iterator<Product> withBadRow = new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < 3;
+            }
+
+            @Override
+            public Product next() {
+                if (index++ == 1) {
+                    throw new MalformedProductException("Cannot deserialize quantity", null);
+                }
+                return products.next();
+            }
+        };
+
+        BatchResult sut = service.createAll(withBadRow);
+
+        assertThat(sut.created()).isEqualTo(2);
+        assertThat(sut.errors())
+                .extracting(BatchError::index, BatchError::reason, BatchError::message)
+                .containsExactly(tuple(1, BatchError.Reason.MALFORMED, "Cannot deserialize quantity"));
+    }
+
+    @Test
+    public void createProducts_WithManyErrors_CountsAllAndKeepsTheFirst() {
+        BatchResult sut = service.createAll(List.of(new Product(), new Product(), new Product()).iterator(), 2);
+
+        assertThat(sut.failed()).isEqualTo(3);
+        assertThat(sut.errors()).extracting(BatchError::index).containsExactly(0, 1);
+    }
+
+    @Test
+    public void createProducts_WithUnreadableInput_KeepsWhatWasCreated() {
+        assignIds();
+        when(jdbcRepository.findExistingNames(any())).thenReturn(Set.of());
+        Iterator<Product> products = List.of(product("A"), product("B"), product("C")).iterator();
+        Iterator<Product> endsEarly = new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (index == 3) {
+                    throw new InvalidRequestException("Input cannot be read from index 3");
+                }
+                return true;
+            }
+
+            @Override
+            public Product next() {
+                index++;
+                return products.next();
+            }
+        };
+
+        BatchResult sut = service.createAll(endsEarly);
+
+        assertThat(sut.created()).isEqualTo(3);
+        assertThat(sut.truncated()).isTrue();
+        assertThat(sut.errors())
+                .extracting(BatchError::index, BatchError::reason)
+                .containsExactly(tuple(3, BatchError.Reason.UNREADABLE));
+    }
+}
@@ -0,0 +1,75 @@
+package com.products.domain;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outbox x Database integration tests
+ */
+@DataJpaTest
+@Import({ ProductJdbcRepository.class, ProductOutbox.class, ProductSecondLevelCache.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class ProductOutboxTest {
+    @Autowired
+    private ProductOutbox outbox;
+
+    @Autowired
+    private ProductJdbcRepository jdbcRepository;
+
+    @Test
+    public void appendChanges_StoresRecordsInOrder() {
+        outbox.append(List.of(
+                new ProductChange.Created(P1),
+                new ProductChange.Removed(2L),
+                new ProductChange.CategoryRemoved(CategoryType.SPORT)));
+
+        List<ProductChangeRecord> records = outbox.findUnpublished(10);
+
+        assertThat(records).extracting(ProductChangeRecord::type).containsExactly(
+                ProductChangeRecord.Type.CREATED, ProductChangeRecord.Type.REMOVED, ProductChangeRecord.Type.CATEGORY_REMOVED);
+        assertThat(records.get(0).product().getName()).isEqualTo(P1.getName());
+        assertThat(records.get(0).category()).isEqualTo(P1.getCategory());
+        assertThat(records.get(1).productId()).isEqualTo(2L);
+        assertThat(records.get(2).category()).isEqualTo(CategoryType.SPORT);
+        assertThat(outbox.findAfter(records.get(0).sequence(), 10)).containsExactlyElementsOf(records.subList(1, 3));
+    }
+
+    @Test
+    public void markPublished_HidesRecordsFromRelay() {
+        outbox.append(List.of(new ProductChange.Removed(1L), new ProductChange.Removed(2L)));
+        List<ProductChangeRecord> records = outbox.findUnpublished(10);
+
+        assertThat(outbox.markPublished(List.of(records.get(0).sequence()))).isEqualTo(1);
+        assertThat(outbox.findUnpublished(10)).containsExactly(records.get(1));
+        assertThat(outbox.findAfter(0, 10)).containsExactlyElementsOf(records);
+    }
+
+    @Test
+    public void insertProducts_InBatch_AppendsCreatedRecords() {
+        jdbcRepository.insertAll(List.of(new Product("Batch 01", "Batch 01 description.", CategoryType.SPORT, 1L, new BigDecimal("1.00"))));
+
+        assertThat(outbox.findUnpublished(10)).singleElement()
+                .satisfies(record -> assertThat(record.product().getName()).isEqualTo("Batch 01"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void appendChanges_WithoutTransaction_ThrowsException() {
+        assertThatThrownBy(() -> outbox.append(List.of(new ProductChange.Removed(1L))))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+}
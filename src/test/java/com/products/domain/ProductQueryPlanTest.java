@@ -0,0 +1,51 @@
+package com.products.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Query plans of the filtered listing: the old Query-by-Example predicate
+ * against the name_key shape used now.
+ */
+@DataJpaTest
+public class ProductQueryPlanTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+
+    @Test
+    public void filterByName_WithLowerFunction_ScansAllRows() {
+        String plan = explain("SELECT * FROM products WHERE LOWER(name) = LOWER('product 001') ORDER BY id");
+
+        // no index applies to LOWER(name): every row is read in primary key order
+        assertThat(plan).contains("PRIMARY_KEY").doesNotContain("IDX_PRODUCTS_NAME_KEY");
+    }
+
+    @Test
+    public void filterByName_WithNameKey_UsesIndex() {
+        String plan = explain("SELECT * FROM products WHERE name_key = 'product 001' ORDER BY id");
+
+        assertThat(plan).contains("IDX_PRODUCTS_NAME_KEY").doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    public void filterByNameAndCategory_WithNameKey_UsesIndex() {
+        String plan = explain("SELECT * FROM products WHERE name_key = 'product 001' AND category = 'SPORT' ORDER BY id");
+
+        assertThat(plan).contains("IDX_PRODUCTS_NAME_KEY").doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    public void filterByCategory_UsesIndex() {
+        String plan = explain("SELECT * FROM products WHERE category = 'SPORT' ORDER BY id");
+
+        assertThat(plan).contains("IDX_PRODUCTS_CATEGORY").doesNotContain("TABLESCAN");
+    }
+}
@@ -7,15 +7,21 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository layer x Database integration tests
@@ -23,16 +29,22 @@ import java.util.Optional;
  * @RafaGuedes
  */
 @DataJpaTest
+@Import({ ProductJdbcRepository.class, ProductOutbox.class, ProductSecondLevelCache.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
 public class ProductRepositoryTest {
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private ProductJdbcRepository jdbcRepository;
+
     @Autowired
     private TestEntityManager testEntityManager;
 
     @AfterEach
     public void afterEach() {
         PRODUCT.setId(null);
+        PRODUCT.setVersion(null);
     }
 
     @Test
@@ -104,11 +116,11 @@ public class ProductRepositoryTest {
     @Sql(scripts = "/import_products.sql")
     @Test
     public void listProducts_ReturnsFilteredProducts() {
-        Example<Product> queryWithoutFilters = QueryBuilder.makeQuery(new Product());
-        Example<Product> queryWithFilters = QueryBuilder.makeQuery(new Product(P1.getName(), P1.getCategory()));
+        ProductFilter queryWithoutFilters = ProductFilter.of(null, null);
+        ProductFilter queryWithFilters = ProductFilter.of(P1.getName(), P1.getCategory());
 
-        List<Product> responseWithoutFilters = repository.findAll(queryWithoutFilters);
-        List<Product> responseWithFilters = repository.findAll(queryWithFilters);
+        List<Product> responseWithoutFilters = repository.findPage(queryWithoutFilters, 0L, Limit.unlimited());
+        List<Product> responseWithFilters = repository.findPage(queryWithFilters, 0L, Limit.unlimited());
 
         assertThat(responseWithoutFilters).isNotEmpty();
         assertThat(responseWithoutFilters).hasSize(3);
@@ -118,20 +130,144 @@ public class ProductRepositoryTest {
 
     @Test
     public void listProducts_ReturnsNoProducts() {
-        Example<Product> query = QueryBuilder.makeQuery(new Product());
+        ProductFilter query = ProductFilter.of(null, null);
 
-        List<Product> response = repository.findAll((query));
+        List<Product> response = repository.findPage(query, 0L, Limit.unlimited());
 
         assertThat(response).isEmpty();
     }
 
+    @Sql(scripts = "/import_products.sql")
+    @Test
+    public void listProductsPage_AfterId_ReturnsNextRowsInIdOrder() {
+        ProductFilter all = ProductFilter.of(null, null);
+        List<Product> firstPage = repository.findPage(all, 0L, Limit.of(2));
+        List<Product> secondPage = repository.findPage(all, firstPage.get(1).getId(), Limit.of(2));
+        List<Product> byName = repository.findPage(ProductFilter.of(P3.getName().toUpperCase(), null), 0L, Limit.of(2));
+        List<Product> byCategory = repository.findPage(ProductFilter.of(null, P2.getCategory()), 0L, Limit.of(2));
+        List<Product> byBoth = repository.findPage(ProductFilter.of(P3.getName(), P2.getCategory()), 0L, Limit.of(2));
+
+        assertThat(firstPage).extracting(Product::getId).containsExactly(P1.getId(), P2.getId());
+        assertThat(secondPage).extracting(Product::getId).containsExactly(P3.getId());
+        assertThat(byName).extracting(Product::getId).containsExactly(P3.getId());
+        assertThat(byCategory).extracting(Product::getId).containsExactly(P2.getId());
+        assertThat(byBoth).isEmpty();
+    }
+
+    @Sql(scripts = "/import_products.sql")
+    @Test
+    public void streamProducts_ReturnsFilteredProductsInIdOrder() {
+        List<Product> all = new ArrayList<>();
+        List<Product> filtered = new ArrayList<>();
+
+        jdbcRepository.stream(ProductFilter.of(null, null), all::add);
+        jdbcRepository.stream(ProductFilter.of(P2.getName().toUpperCase(), P2.getCategory()), filtered::add);
+
+        assertThat(all).extracting(Product::getId).containsExactly(P1.getId(), P2.getId(), P3.getId());
+        assertThat(filtered).hasSize(1);
+        assertThat(filtered.get(0).getName()).isEqualTo(P2.getName());
+        assertThat(filtered.get(0).getPrice()).isEqualTo(P2.getPrice());
+    }
+
+    @Test
+    public void getVersion_AfterUpdate_ReturnsIncrementedVersion() {
+        var product = testEntityManager.persistFlushFind(PRODUCT);
+        assertThat(repository.findVersionById(product.getId())).contains(new ProductVersion(product.getId(), 0L));
+
+        product.setQuantity(product.getQuantity() + 1);
+        testEntityManager.flush();
+
+        assertThat(repository.findVersionByName(PRODUCT.getName())).contains(new ProductVersion(product.getId(), 1L));
+        assertThat(repository.findVersionById(999L)).isEmpty();
+    }
+
+    @Sql(scripts = "/import_products.sql")
+    @Test
+    public void getFacets_AggregatesPerCategory() {
+        jdbcRepository.insertAll(List.of(new Product("Batch 01", "Batch 01 description.", CategoryType.SPORT, 5L, new BigDecimal("101.00"))));
+
+        List<CategoryFacet> all = jdbcRepository.facets(ProductFilter.of(null, null));
+        List<CategoryFacet> named = jdbcRepository.facets(ProductFilter.of(P2.getName().toUpperCase(), null));
+
+        assertThat(all).extracting(CategoryFacet::category)
+                .containsExactly(CategoryType.AUTOMOTIVE, CategoryType.HEALTH, CategoryType.SPORT);
+        assertThat(all.get(2)).isEqualTo(new CategoryFacet(CategoryType.SPORT, 2, new BigDecimal("101.00"),
+                new BigDecimal("300.00"), new BigDecimal("200.50"), 35));
+        assertThat(named).containsExactly(new CategoryFacet(CategoryType.HEALTH, 1, new BigDecimal("200.00"),
+                new BigDecimal("200.00"), new BigDecimal("200.00"), 20));
+    }
+
+    @Sql(scripts = "/import_products.sql")
+    @Test
+    public void findProducts_ByIdsOrNames_ReturnsMatchingRows() {
+        List<Long> ids = new ArrayList<>(List.of(P3.getId(), P1.getId()));
+        for (long id = 1000; ids.size() <= ProductJdbcRepository.IN_CHUNK_SIZE; id++) {
+            ids.add(id);
+        }
+
+        assertThat(jdbcRepository.findAllByIds(ids)).extracting(Product::getId).containsExactlyInAnyOrder(P1.getId(), P3.getId());
+        assertThat(jdbcRepository.findAllByNames(List.of(P2.getName().toUpperCase(), "Unknown")))
+                .extracting(Product::getName).containsExactly(P2.getName());
+        assertThat(jdbcRepository.findAllByIds(List.of())).isEmpty();
+    }
+
+    @Sql(scripts = "/import_products.sql")
+    @Test
+    public void listProductViews_ReturnsOnlySelectedColumns() {
+        Set<ProductField> fields = ProductField.parse("name,price");
+
+        List<ProductView> page = jdbcRepository.findViews(ProductFilter.of(null, null), fields, P1.getId(), Limit.of(1));
+        List<ProductView> sport = jdbcRepository.findViews(ProductFilter.of(null, CategoryType.SPORT), fields, 0L, Limit.unlimited());
+
+        assertThat(page).containsExactly(new ProductView(P2.getId(), P2.getName(), null, null, null, P2.getPrice()));
+        assertThat(sport).extracting(ProductView::id).containsExactly(P3.getId());
+        assertThat(jdbcRepository.findView(P1.getId(), ProductField.parse("quantity")))
+                .contains(new ProductView(P1.getId(), null, null, null, P1.getQuantity(), null));
+        assertThat(jdbcRepository.findViewByName(P3.getName(), ProductField.parse(""))).contains(new ProductView(P3.getId(), null, null, null, null, null));
+    }
+
+    @Test
+    public void insertProducts_InBatch_AssignsGeneratedIds() {
+        var first = new Product("Batch 01", "Batch 01 description.", CategoryType.SPORT, 1L, new BigDecimal("1.00"));
+        var second = new Product("Batch 02", "Batch 02 description.", CategoryType.HEALTH, 2L, new BigDecimal("2.00"));
+
+        jdbcRepository.insertAll(List.of(first, second));
+
+        assertThat(first.getId()).isNotNull();
+        assertThat(second.getId()).isGreaterThan(first.getId());
+        assertThat(testEntityManager.find(Product.class, second.getId()).getName()).isEqualTo("Batch 02");
+        assertThat(jdbcRepository.findExistingNames(List.of("Batch 01", "Batch 03"))).containsExactly("Batch 01");
+    }
+
+    @Test
+    public void insertProducts_WithExistingName_ThrowsException() {
+        testEntityManager.persistFlushFind(PRODUCT);
+        var duplicated = new Product(PRODUCT.getName(), "Other description.", CategoryType.SPORT, 1L, new BigDecimal("1.00"));
+
+        assertThatThrownBy(() -> jdbcRepository.insertAll(List.of(duplicated)))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
     @Test
     public void removeProduct_WithExistingId_RemovesProductFromDatabase() {
         var product = testEntityManager.persistFlushFind(PRODUCT);
 
-        repository.deleteById(product.getId());
+        List<Long> deleted = jdbcRepository.deleteAll(List.of(product.getId()));
+        testEntityManager.clear();
 
         var removedProduct = testEntityManager.find(Product.class, product.getId());
+        assertThat(deleted).containsExactly(product.getId());
         assertThat(removedProduct).isNull();
+        assertThat(jdbcRepository.deleteAll(List.of(product.getId()))).isEmpty();
+    }
+
+    @Sql(scripts = "/import_products.sql")
+    @Test
+    public void removeProducts_ByIdsOrCategory_DeletesMatchingRows() {
+        assertThat(jdbcRepository.deleteAll(List.of(P1.getId(), 999L))).containsExactly(P1.getId());
+        assertThat(repository.removeByCategory(P2.getCategory())).isEqualTo(1);
+        assertThat(repository.removeByCategory(P2.getCategory())).isZero();
+
+        assertThat(repository.findAll()).extracting(Product::getId).containsExactly(P3.getId());
     }
 }
@@ -1,24 +1,36 @@
 package com.products.domain;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static com.products.mock.ProductMock.*;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Example;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service layer unit tests
@@ -34,6 +46,18 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository repository;
 
+    @Mock
+    private ProductJdbcRepository jdbcRepository;
+
+    @Mock
+    private ProductOutbox outbox;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Spy
+    private ProductCache cache = new ProductCache(100, Duration.ofMinutes(1));
+
     @Test
     public void createProduct_WithValidData_ReturnsProduct() {
         when(repository.save(PRODUCT))
@@ -54,6 +78,18 @@ public class ProductServiceTest {
 
     }
 
+    @Test
+    public void getVersion_WithCachedProduct_SkipsRepository() {
+        when(repository.findById(1L)).thenReturn(Optional.of(P1));
+        when(repository.findVersionById(2L)).thenReturn(Optional.of(new ProductVersion(2L, 5L)));
+
+        service.get(1L);
+
+        assertThat(service.version(1L)).contains(new ProductVersion(P1.getId(), P1.getVersion()));
+        assertThat(service.version(2L)).contains(new ProductVersion(2L, 5L));
+        verify(repository, times(1)).findVersionById(any());
+    }
+
     @Test
     public void getProduct_ByExistingId_ReturnsProduct() {
         var ID = PRODUCT.getId();
@@ -102,13 +138,94 @@ public class ProductServiceTest {
         assertThat(sut).isEmpty();
     }
 
+    @Test
+    public void getProduct_Twice_LoadsFromRepositoryOnce() {
+        when(repository.findById(P1.getId())).thenReturn(Optional.of(P1));
+
+        service.get(P1.getId());
+        Optional<Product> sut = service.get(P1.getId());
+
+        assertThat(sut).contains(P1);
+        assertThat(cache.idStats().hitCount()).isEqualTo(1);
+        verify(repository, times(1)).findById(P1.getId());
+    }
+
+    @Test
+    public void getProduct_ByNameThenId_SharesCachedProduct() {
+        when(repository.findByName(P1.getName())).thenReturn(Optional.of(P1));
+
+        service.getByName(P1.getName());
+        Optional<Product> byName = service.getByName(P1.getName().toUpperCase());
+        Optional<Product> byId = service.get(P1.getId());
+
+        assertThat(byName).contains(P1);
+        assertThat(byId).contains(P1);
+        verify(repository, times(1)).findByName(any());
+        verify(repository, times(0)).findById(any());
+    }
+
+    @Test
+    public void createProduct_AfterMissByName_InvalidatesCachedMiss() {
+        when(repository.findByName(PRODUCT.getName()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(PRODUCT));
+        when(repository.save(PRODUCT)).thenReturn(PRODUCT);
+
+        assertThat(service.getByName(PRODUCT.getName())).isEmpty();
+        service.create(PRODUCT);
+
+        assertThat(service.getByName(PRODUCT.getName())).contains(PRODUCT);
+    }
+
+    @Test
+    public void removeProduct_AfterGet_InvalidatesCachedProduct() {
+        when(repository.findById(P1.getId()))
+                .thenReturn(Optional.of(P1))
+                .thenReturn(Optional.empty());
+
+        when(jdbcRepository.deleteAll(List.of(P1.getId()))).thenReturn(List.of(P1.getId()));
+
+        assertThat(service.get(P1.getId())).contains(P1);
+        service.remove(P1.getId());
+
+        assertThat(service.get(P1.getId())).isEmpty();
+        assertThat(service.getByName(P1.getName())).isEmpty();
+    }
+
+    @Test
+    public void getProduct_WithConcurrentMisses_LoadsFromRepositoryOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        when(repository.findById(P1.getId())).thenAnswer(invocation -> {
+            loading.await(1, TimeUnit.SECONDS);
+            return Optional.of(P1);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<Product>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> service.get(P1.getId())));
+            }
+            loading.countDown();
+
+            for (Future<Optional<Product>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains(P1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(repository, times(1)).findById(P1.getId());
+    }
+
     @Test
     public void listProducts_ReturnsAllProducts() {
         List<Product> products = new ArrayList<>() {{
             add(PRODUCT);
         }};
 
-        when(repository.findAll(any(Example.class))).thenReturn(products);
+        when(repository.findPage(ProductFilter.of(PRODUCT.getName(), PRODUCT.getCategory()), 0L, Limit.unlimited()))
+                .thenReturn(products);
 
         List<Product> sut = service.list(PRODUCT.getName(), PRODUCT.getCategory());
 
@@ -119,25 +236,114 @@ public class ProductServiceTest {
 
     @Test
     public void listProducts_ReturnsNoProducts() {
-        when(repository.findAll(any())).thenReturn(Collections.emptyList());
+        when(repository.findPage(any(), eq(0L), any())).thenReturn(Collections.emptyList());
 
         List<Product> sut = service.list(PRODUCT.getName(), PRODUCT.getCategory());
 
         assertThat(sut).isEmpty();
     }
 
+    @Test
+    public void listProductsPage_WithMoreRows_ReturnsNextCursor() {
+        when(repository.findPage(ProductFilter.of(null, null), 0L, Limit.of(3))).thenReturn(PRODUCTS);
+
+        ProductPage<Product> sut = service.list(null, null, null, 2);
+
+        assertThat(sut.items()).containsExactly(P1, P2);
+        assertThat(sut.next()).isEqualTo(PageCursor.encode(P2.getId()));
+    }
+
+    @Test
+    public void listProductsPage_FromCursor_ReturnsLastPage() {
+        when(repository.findPage(eq(ProductFilter.of(null, null)), eq(P2.getId()), any(Limit.class))).thenReturn(List.of(P3));
+
+        ProductPage<Product> sut = service.list(null, null, PageCursor.encode(P2.getId()), 2);
+
+        assertThat(sut.items()).containsExactly(P3);
+        assertThat(sut.next()).isNull();
+    }
+
+    @Test
+    public void listProductsPage_WithInvalidArguments_ThrowsException() {
+        assertThatThrownBy(() -> service.list(null, null, null, 0))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.list(null, null, "not a cursor", 10))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
     @Test
     public void removeProduct_WithExistingId_doesNotThrowsAnyException() {
-        assertThatCode(() -> service.remove(PRODUCT.getId()))
+        when(jdbcRepository.deleteAll(List.of(P1.getId()))).thenReturn(List.of(P1.getId()));
+
+        assertThatCode(() -> service.remove(P1.getId()))
                 .doesNotThrowAnyException();
     }
 
     @Test
     public void removeProduct_WithUnexistingId_ThrowsException() {
-        doThrow(new RuntimeException()).when(repository)
-                .deleteById(999999L);
+        when(jdbcRepository.deleteAll(List.of(999999L))).thenReturn(List.of());
 
         assertThatThrownBy(() -> service.remove(999999L))
-                .isInstanceOf(RuntimeException.class);
+                .isInstanceOf(EmptyResultDataAccessException.class);
+    }
+
+    @Test
+    public void removeProducts_ByIdsOrCategory_InvalidatesCachedProducts() {
+        when(repository.findById(P1.getId())).thenReturn(Optional.of(P1));
+        when(repository.findById(P3.getId())).thenReturn(Optional.of(P3));
+        when(jdbcRepository.deleteAll(List.of(P1.getId(), 99L))).thenReturn(List.of(P1.getId()));
+        when(repository.removeByCategory(P3.getCategory())).thenReturn(1);
+
+        service.get(P1.getId());
+        service.get(P3.getId());
+
+        assertThat(service.removeAll(List.of(P1.getId(), 99L))).isEqualTo(new DeleteResult(1));
+        assertThat(service.removeAll(P3.getCategory())).isEqualTo(new DeleteResult(1));
+        assertThat(service.removeAll(List.of())).isEqualTo(new DeleteResult(0));
+
+        service.get(P1.getId());
+        service.get(P3.getId());
+        verify(repository, times(2)).findById(P1.getId());
+        verify(repository, times(2)).findById(P3.getId());
+    }
+
+    @Test
+    public void removeProducts_ByIds_PublishesOnlyDeletedIds() {
+        when(jdbcRepository.deleteAll(List.of(P1.getId(), 99L))).thenReturn(List.of(P1.getId()));
+        when(jdbcRepository.deleteAll(List.of(98L))).thenReturn(List.of());
+
+        service.removeAll(List.of(P1.getId(), 99L));
+        service.removeAll(List.of(98L));
+
+        verify(outbox).append(List.of(new ProductChange.Removed(P1.getId())));
+        verify(events).publishEvent(new ProductChange.Removed(P1.getId()));
+        verifyNoMoreInteractions(outbox, events);
+    }
+
+    @Test
+    public void lookupProducts_ByIdsAndNames_ReturnsRequestOrderAndMisses() {
+        when(repository.findById(P2.getId())).thenReturn(Optional.of(P2));
+        when(jdbcRepository.findAllByIds(List.of(P3.getId(), 99L, P1.getId()))).thenReturn(List.of(P1, P3));
+        when(jdbcRepository.findAllByNames(List.of(P1.getName().toUpperCase(), "Unknown"))).thenReturn(List.of(P1));
+
+        service.get(P2.getId());
+        ProductLookup sut = service.lookup(new LookupRequest(
+                List.of(P3.getId(), P2.getId(), 99L, P1.getId(), P3.getId()),
+                List.of(P1.getName().toUpperCase(), "Unknown")));
+
+        assertThat(sut.products()).containsExactly(P3, P2, P1);
+        assertThat(sut.missingIds()).containsExactly(99L);
+        assertThat(sut.missingNames()).containsExactly("Unknown");
+    }
+
+    @Test
+    public void lookupProducts_OverLimit_ThrowsException() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id <= ProductService.MAX_PAGE_SIZE; id++) {
+            ids.add(id);
+        }
+
+        assertThatThrownBy(() -> service.lookup(new LookupRequest(ids, null)))
+                .isInstanceOf(InvalidRequestException.class);
     }
 }
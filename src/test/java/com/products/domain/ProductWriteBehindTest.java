@@ -0,0 +1,156 @@
+package com.products.domain;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Write-behind creation unit tests; the writer is started after queueing where the grouping matters
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductWriteBehindTest {
+    private static final SimpleMeterRegistry REGISTRY = new SimpleMeterRegistry();
+
+    @Mock
+    private ProductBatchService batchService;
+
+    private ProductWriteBehind writeBehind;
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        writeBehind.stop();
+    }
+
+    @Test
+    public void submitProducts_AreCommittedInOneGroup() throws InterruptedException {
+        writeBehind = writeBehind(10, Duration.ofSeconds(1));
+        when(batchService.createAll(any(), anyInt())).thenAnswer(invocation -> created(invocation.getArgument(0), List.of()));
+
+        List<ProductCreation> submitted = List.of(writeBehind.submit(product(1)), writeBehind.submit(product(2)),
+                writeBehind.submit(product(3)));
+        writeBehind.start();
+        writeBehind.stop();
+
+        verify(batchService, times(1)).createAll(any(), anyInt());
+        assertThat(submitted).extracting(ProductCreation::state).containsOnly(ProductCreation.State.PENDING);
+        assertThat(submitted).map(creation -> writeBehind.status(creation.trackingId()).orElseThrow())
+                .extracting(ProductCreation::state, creation -> creation.product().getId())
+                .containsExactly(
+                        tuple(ProductCreation.State.CREATED, 1L),
+                        tuple(ProductCreation.State.CREATED, 2L),
+                        tuple(ProductCreation.State.CREATED, 3L));
+        assertThat(REGISTRY.get("products.write-behind.group.size").summary().max()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    public void submitProducts_ReportFailuresToEachCaller() throws InterruptedException {
+        writeBehind = writeBehind(10, Duration.ofSeconds(1));
+        when(batchService.createAll(any(), anyInt())).thenAnswer(invocation -> created(invocation.getArgument(0),
+                List.of(new BatchError(1, "Product 2", BatchError.Reason.CONFLICT, "Product name already exists"))));
+
+        ProductCreation first = writeBehind.submit(product(1));
+        ProductCreation second = writeBehind.submit(product(2));
+        writeBehind.start();
+        writeBehind.stop();
+
+        assertThat(writeBehind.status(first.trackingId())).get()
+                .extracting(ProductCreation::state).isEqualTo(ProductCreation.State.CREATED);
+        assertThat(writeBehind.status(second.trackingId())).get()
+                .extracting(ProductCreation::state, ProductCreation::error)
+                .containsExactly(ProductCreation.State.FAILED, "Product name already exists: Product 2");
+        assertThat(writeBehind.status("unknown")).isEmpty();
+    }
+
+    @Test
+    public void createProduct_WaitsForItsGroup() {
+        writeBehind = writeBehind(10, Duration.ZERO);
+        writeBehind.start();
+        when(batchService.createAll(any(), anyInt()))
+                .thenAnswer(invocation -> created(invocation.getArgument(0), List.of()))
+                .thenAnswer(invocation -> created(invocation.getArgument(0),
+                        List.of(new BatchError(0, PRODUCT.getName(), BatchError.Reason.CONFLICT, "Product name already exists"))))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(writeBehind.create(product(1)).getId()).isEqualTo(1L);
+        assertThatThrownBy(() -> writeBehind.create(product(2))).isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> writeBehind.create(product(3))).isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    public void submitProduct_WhenQueueIsFull_ThrowsException() {
+        writeBehind = new ProductWriteBehind(batchService, REGISTRY, 1, 10, Duration.ZERO, Duration.ofMillis(10),
+                Duration.ofSeconds(5), Duration.ofMinutes(1));
+
+        writeBehind.submit(product(1));
+
+        assertThatThrownBy(() -> writeBehind.submit(product(2))).isInstanceOf(WriteBehindFullException.class);
+    }
+
+    @Test
+    public void createProduct_WhenNotCommittedInTime_ThrowsException() {
+        writeBehind = new ProductWriteBehind(batchService, REGISTRY, 100, 10, Duration.ZERO, Duration.ofMillis(10),
+                Duration.ofMillis(10), Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> writeBehind.create(product(1)))
+                .isInstanceOfSatisfying(WriteBehindTimeoutException.class, ex -> assertThat(writeBehind.status(ex.getTrackingId()))
+                        .get().extracting(ProductCreation::state).isEqualTo(ProductCreation.State.PENDING));
+    }
+
+    @Test
+    public void stop_FailsCreationsTheWriterDidNotDrain() throws InterruptedException {
+        writeBehind = writeBehind(10, Duration.ZERO);
+
+        ProductCreation creation = writeBehind.submit(product(1));
+        writeBehind.stop();
+
+        verify(batchService, times(0)).createAll(any(), anyInt());
+        assertThat(writeBehind.status(creation.trackingId())).get()
+                .extracting(ProductCreation::state).isEqualTo(ProductCreation.State.FAILED);
+        assertThatThrownBy(() -> writeBehind.submit(product(2))).isInstanceOf(WriteBehindFullException.class);
+    }
+
+    private ProductWriteBehind writeBehind(int groupSize, Duration maxDelay) {
+        return new ProductWriteBehind(batchService, REGISTRY, 100, groupSize, maxDelay, Duration.ofMillis(10),
+                Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    private static Product product(int i) {
+        return new Product("Product " + i, "Product " + i + " description.", CategoryType.SPORT, 1L, BigDecimal.ONE);
+    }
+
+    /**
+     * Stands in for the batch insert: every product not listed in {@code errors} gets an id from its name.
+     */
+    private static BatchResult created(Iterator<Product> products, List<BatchError> errors) {
+        List<Product> all = new ArrayList<>();
+        products.forEachRemaining(all::add);
+        for (int i = 0; i < all.size(); i++) {
+            int index = i;
+            if (errors.stream().noneMatch(error -> error.index() == index)) {
+                all.get(i).setId(Long.parseLong(all.get(i).getName().substring("Product ".length())));
+            }
+        }
+        return new BatchResult(all.size() - errors.size(), errors.size(), errors, false);
+    }
+}
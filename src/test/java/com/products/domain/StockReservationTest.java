@@ -0,0 +1,171 @@
+package com.products.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock reservations against the database, under contention
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ProductCache.class, ProductJdbcRepository.class, ProductOutbox.class, ProductSecondLevelCache.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class StockReservationTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 20;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductJdbcRepository jdbcRepository;
+
+    @Autowired
+    private ProductCache cache;
+
+    @AfterEach
+    public void afterEach() {
+        repository.deleteAll();
+    }
+
+    @Test
+    public void reserve_WithConditionalUpdates_NeverOversells() throws Exception {
+        Product product = repository.save(product(100L));
+        StockService service = new StockService(repository, jdbcRepository, cache, Optional.empty());
+
+        int reserved = reserveConcurrently(service, product.getId());
+
+        assertThat(reserved).isEqualTo(100);
+        assertThat(quantity(product)).isZero();
+        assertThat(repository.findVersionById(product.getId()).orElseThrow().version()).isEqualTo(100L);
+    }
+
+    @Test
+    public void reserve_WithAllotments_NeverOversells() throws Exception {
+        Product product = repository.save(product(95L));
+        StockAllotments allotments = new StockAllotments(jdbcRepository, 10, 4);
+        StockService service = new StockService(repository, jdbcRepository, cache, Optional.of(allotments));
+
+        int reserved = reserveConcurrently(service, product.getId());
+        allotments.flush();
+
+        assertThat(reserved).isEqualTo(95);
+        assertThat(quantity(product)).isZero();
+    }
+
+    @Test
+    public void reserve_WithAllotments_ReturnsUnusedUnitsOnFlush() {
+        Product product = repository.save(product(50L));
+        StockAllotments allotments = new StockAllotments(jdbcRepository, 10, 4);
+        StockService service = new StockService(repository, jdbcRepository, cache, Optional.of(allotments));
+
+        service.reserve(product.getId(), 3);
+
+        assertThat(quantity(product)).isEqualTo(40L);
+        assertThat(allotments.available(product.getId())).isEqualTo(7L);
+
+        allotments.flush();
+
+        assertThat(quantity(product)).isEqualTo(47L);
+        assertThat(allotments.available(product.getId())).isZero();
+    }
+
+    @Test
+    public void reserve_WithAllotments_KeepsNoneForMissingOrRemovedProducts() {
+        Product kept = repository.save(product(50L));
+        Product removed = repository.save(new Product("Removed", "Removed description.", CategoryType.HEALTH, 50L,
+                new BigDecimal("1.00")));
+        StockAllotments allotments = new StockAllotments(jdbcRepository, 10, 4);
+        StockService service = new StockService(repository, jdbcRepository, cache, Optional.of(allotments));
+
+        for (long id = 1_000; id < 1_100; id++) {
+            long missing = id;
+            assertThatThrownBy(() -> service.reserve(missing, 1)).isInstanceOf(EmptyResultDataAccessException.class);
+        }
+        service.reserve(kept.getId(), 1);
+        service.reserve(removed.getId(), 1);
+        assertThat(allotments.size()).isEqualTo(2);
+
+        jdbcRepository.deleteAll(List.of(removed.getId()));
+        allotments.on(new ProductChange.Removed(removed.getId()));
+        assertThat(allotments.size()).isEqualTo(1);
+
+        repository.removeByCategory(kept.getCategory());
+        allotments.on(new ProductChange.CategoryRemoved(kept.getCategory()));
+        assertThat(allotments.size()).isZero();
+    }
+
+    @Test
+    public void reserveAndRelease_WithUnknownProductOrTooFewUnits_ThrowsException() {
+        Product product = repository.save(product(1L));
+        StockService service = new StockService(repository, jdbcRepository, cache, Optional.empty());
+
+        assertThatThrownBy(() -> service.reserve(product.getId(), 2)).isInstanceOf(InsufficientStockException.class);
+        assertThatThrownBy(() -> service.reserve(999L, 1)).isInstanceOf(EmptyResultDataAccessException.class);
+        assertThatThrownBy(() -> service.release(999L, 1)).isInstanceOf(EmptyResultDataAccessException.class);
+        assertThatThrownBy(() -> service.reserve(product.getId(), 0)).isInstanceOf(InvalidRequestException.class);
+
+        service.release(product.getId(), 4);
+        assertThat(quantity(product)).isEqualTo(5L);
+    }
+
+    private int reserveConcurrently(StockService service, Long id) throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                        try {
+                            service.reserve(id, 1);
+                            reserved.incrementAndGet();
+                        } catch (InsufficientStockException ignored) {
+                            // sold out
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return reserved.get();
+    }
+
+    private long quantity(Product product) {
+        return repository.findById(product.getId()).orElseThrow().getQuantity();
+    }
+
+    private static Product product(long quantity) {
+        return new Product("Stock " + quantity, "Stock " + quantity + " description.", CategoryType.SPORT, quantity, new BigDecimal("1.00"));
+    }
+}
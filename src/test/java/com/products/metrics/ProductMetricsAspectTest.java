@@ -0,0 +1,81 @@
+package com.products.metrics;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.products.domain.InvalidRequestException;
+import com.products.domain.ProductCache;
+import com.products.domain.ProductJdbcRepository;
+import com.products.domain.ProductOutbox;
+import com.products.domain.ProductRepository;
+import com.products.domain.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Hot path timers unit tests
+ */
+public class ProductMetricsAspectTest {
+    private MeterRegistry registry;
+    private ProductRepository repository;
+    private ProductService service;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        repository = mock(ProductRepository.class);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new ProductService(repository, mock(ProductJdbcRepository.class), new ProductCache(100, Duration.ofMinutes(1)),
+                        mock(ProductOutbox.class), mock(ApplicationEventPublisher.class)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ProductMetricsAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @Test
+    public void getProduct_TimesFoundAndNotFoundSeparately() {
+        when(repository.findById(1L)).thenReturn(Optional.of(PRODUCT));
+
+        service.get(1L);
+        service.get(2L);
+
+        assertThat(count("get", ProductMetricsAspect.OUTCOME_SUCCESS)).isEqualTo(1);
+        assertThat(count("get", ProductMetricsAspect.OUTCOME_NOT_FOUND)).isEqualTo(1);
+    }
+
+    @Test
+    public void createProduct_WithExistingName_TimesConflict() {
+        when(repository.save(PRODUCT)).thenThrow(DataIntegrityViolationException.class);
+
+        assertThatThrownBy(() -> service.create(PRODUCT)).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(count("create", ProductMetricsAspect.OUTCOME_CONFLICT)).isEqualTo(1);
+    }
+
+    @Test
+    public void listProducts_WithInvalidLimit_TimesInvalid() {
+        assertThatThrownBy(() -> service.list(null, null, null, 0)).isInstanceOf(InvalidRequestException.class);
+
+        assertThat(count("list", ProductMetricsAspect.OUTCOME_INVALID)).isEqualTo(1);
+    }
+
+    private long count(String operation, String outcome) {
+        return registry.get("products.service")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
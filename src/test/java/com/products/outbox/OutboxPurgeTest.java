@@ -0,0 +1,55 @@
+package com.products.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.products.domain.ProductChange;
+import com.products.domain.ProductChangeRecord;
+import com.products.domain.ProductOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outbox retention with the default settings, where no relay ever publishes a row
+ */
+@DataJpaTest
+@Import({ ProductOutbox.class, OutboxPurge.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class OutboxPurgeTest {
+    @Autowired
+    private ProductOutbox outbox;
+
+    @Autowired
+    private OutboxPurge purge;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${products.outbox.relay.enabled}")
+    private boolean relayEnabled;
+
+    @Value("${products.outbox.retention}")
+    private Duration retention;
+
+    @Test
+    public void purge_WithRelayOff_RemovesUnpublishedRowsPastRetention() {
+        outbox.append(List.of(new ProductChange.Removed(1L), new ProductChange.Removed(2L)));
+        List<ProductChangeRecord> records = outbox.findAfter(0, 10);
+        jdbcTemplate.update("UPDATE product_outbox SET occurred_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(retention).minusSeconds(60)), records.get(0).sequence());
+
+        assertThat(relayEnabled).isFalse();
+        assertThat(purge.purge()).isEqualTo(1);
+        assertThat(outbox.findAfter(0, 10)).containsExactly(records.get(1));
+    }
+}
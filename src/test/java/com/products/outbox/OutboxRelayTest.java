@@ -0,0 +1,65 @@
+package com.products.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.products.domain.ProductChangeRecord;
+import com.products.domain.ProductOutbox;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox relay unit tests
+ */
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+    private static final ProductChangeRecord R1 = removed(1);
+    private static final ProductChangeRecord R2 = removed(2);
+    private static final ProductChangeRecord R3 = removed(3);
+
+    @Mock
+    private ProductOutbox outbox;
+
+    @Test
+    public void relay_PublishesBatchesToEverySinkAndMarksThem() throws Exception {
+        List<ProductChangeRecord> first = new ArrayList<>();
+        List<ProductChangeRecord> second = new ArrayList<>();
+        when(outbox.findUnpublished(2)).thenReturn(List.of(R1, R2), List.of(R3));
+
+        OutboxRelay relay = new OutboxRelay(outbox, List.of(first::addAll, second::addAll), 2);
+
+        assertThat(relay.relay()).isEqualTo(3);
+        assertThat(first).containsExactly(R1, R2, R3);
+        assertThat(second).containsExactly(R1, R2, R3);
+        verify(outbox).markPublished(List.of(1L, 2L));
+        verify(outbox).markPublished(List.of(3L));
+    }
+
+    @Test
+    public void relay_WithFailingSink_LeavesBatchUnpublished() {
+        when(outbox.findUnpublished(2)).thenReturn(List.of(R1));
+        ChangeSink failing = records -> {
+            throw new IOException("disk full");
+        };
+
+        OutboxRelay relay = new OutboxRelay(outbox, List.of(failing), 2);
+
+        assertThatThrownBy(relay::relay).isInstanceOf(IOException.class);
+        verify(outbox, never()).markPublished(any());
+    }
+
+    private static ProductChangeRecord removed(long sequence) {
+        return new ProductChangeRecord(sequence, ProductChangeRecord.Type.REMOVED, sequence, null, null, Instant.EPOCH);
+    }
+}
@@ -0,0 +1,117 @@
+package com.products.reactive;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.products.domain.Product;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Reactive stack x R2DBC (H2) integration tests
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(classes = ReactiveProductsApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:products_schema.sql"
+})
+public class ReactiveProductControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @BeforeEach
+    public void importProducts() {
+        new ResourceDatabasePopulator(new ClassPathResource("import_products.sql")).populate(connectionFactory).block();
+    }
+
+    @AfterEach
+    public void removeProducts() {
+        new ResourceDatabasePopulator(new ClassPathResource("remove_products.sql")).populate(connectionFactory).block();
+    }
+
+    @Test
+    public void createProduct_ReturnsCreated() {
+        Product sut = webTestClient.post().uri("/products")
+                .bodyValue(PRODUCT)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Product.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(sut.getId()).isNotNull();
+        assertThat(sut.getName()).isEqualTo(PRODUCT.getName());
+    }
+
+    @Test
+    public void createProduct_WithInvalidOrExistingData_ReturnsError() {
+        webTestClient.post().uri("/products")
+                .bodyValue(INVALID_PRODUCT)
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody().jsonPath("$.status").isEqualTo(422);
+
+        webTestClient.post().uri("/products")
+                .bodyValue(new Product(P1.getName(), "Other.", P1.getCategory(), 1L, P1.getPrice()))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    public void getProduct_ByIdAndName_ReturnsProduct() {
+        webTestClient.get().uri("/products/" + P1.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo(P1.getName());
+
+        webTestClient.get().uri("/products/name/" + P2.getName())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(P2.getId());
+
+        webTestClient.get().uri("/products/999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void listProducts_ReturnsFilteredProducts() {
+        webTestClient.get().uri("/products")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Product.class).hasSize(3);
+
+        webTestClient.get().uri("/products?name=" + P3.getName().toUpperCase() + "&category=" + P3.getCategory())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Product.class).hasSize(1);
+    }
+
+    @Test
+    public void removeProduct_ReturnsNoContentThenNotFound() {
+        webTestClient.delete().uri("/products/" + P1.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/products/" + P1.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
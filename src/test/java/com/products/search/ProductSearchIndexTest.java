@@ -0,0 +1,74 @@
+package com.products.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductChange;
+import com.products.domain.ProductJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Inverted index unit tests
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+    private static final Product KEYBOARD = product(1L, "Mechanical Keyboard", "Tactile switches, USB-C.", CategoryType.SPORT);
+    private static final Product KEY_RING = product(2L, "Key ring", "Steel ring for car keys.", CategoryType.AUTOMOTIVE);
+    private static final Product MOUSE = product(3L, "Wireless Mouse", "Pairs with any keyboard.", CategoryType.SPORT);
+
+    @Mock
+    private ProductJdbcRepository jdbcRepository;
+
+    @Test
+    public void search_RanksNameOverDescriptionAndExactOverPrefix() {
+        ProductSearchIndex index = index(KEYBOARD, KEY_RING, MOUSE);
+
+        assertThat(index.search("keyboard", null, 10)).extracting(ProductHit::id).containsExactly(1L, 3L);
+        assertThat(index.search("key", null, 10)).extracting(ProductHit::id).containsExactly(2L, 1L, 3L);
+        assertThat(index.search("KEY steel", null, 10)).extracting(ProductHit::id).containsExactly(2L);
+        assertThat(index.search("keyb", CategoryType.SPORT, 1)).extracting(ProductHit::id).containsExactly(1L);
+        assertThat(index.search("keyboard", CategoryType.AUTOMOTIVE, 10)).isEmpty();
+        assertThat(index.search(" ,; ", null, 10)).isEmpty();
+    }
+
+    @Test
+    public void search_FollowsProductChanges() {
+        ProductSearchIndex index = index(KEYBOARD, KEY_RING);
+
+        index.on(new ProductChange.Created(MOUSE));
+        index.on(new ProductChange.Removed(1L));
+
+        assertThat(index.search("keyboard", null, 10)).extracting(ProductHit::id).containsExactly(3L);
+
+        index.on(new ProductChange.CategoryRemoved(CategoryType.SPORT));
+
+        assertThat(index.search("keyboard", null, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductSearchIndex index(Product... products) {
+        doAnswer(invocation -> {
+            List.of(products).forEach(invocation.<Consumer<Product>>getArgument(1));
+            return null;
+        }).when(jdbcRepository).stream(any(), any(Consumer.class));
+
+        ProductSearchIndex index = new ProductSearchIndex(jdbcRepository, true);
+        index.rebuild();
+        return index;
+    }
+
+    private static Product product(Long id, String name, String description, CategoryType category) {
+        return new Product(id, name, description, category, 1L, new BigDecimal("1.00"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.products.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import com.products.domain.CategoryType;
+import com.products.domain.Product;
+import com.products.domain.ProductChange;
+import com.products.domain.ProductJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Typeahead unit tests
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductSuggestionsTest {
+    private static final Product KEYBOARD = product(1L, "Keyboard", CategoryType.SPORT);
+    private static final Product KEY = product(2L, "key", CategoryType.AUTOMOTIVE);
+    private static final Product KEY_RING = product(3L, "Key ring", CategoryType.SPORT);
+    private static final Product KETTLE = product(4L, "Kettle", CategoryType.HEALTH);
+
+    @Mock
+    private ProductJdbcRepository jdbcRepository;
+
+    @Test
+    public void suggest_ReturnsNamesByPrefixInNameOrder() {
+        ProductSuggestions suggestions = suggestions(KEYBOARD, KEY, KEY_RING, KETTLE);
+
+        assertThat(suggestions.suggest("KE", null, 10)).extracting(ProductSuggestion::id).containsExactly(4L, 2L, 3L, 1L);
+        assertThat(suggestions.suggest("key", null, 2)).extracting(ProductSuggestion::id).containsExactly(2L, 3L);
+        assertThat(suggestions.suggest("key", CategoryType.SPORT, 10)).extracting(ProductSuggestion::id).containsExactly(3L, 1L);
+        assertThat(suggestions.suggest("key r", null, 10)).extracting(ProductSuggestion::name).containsExactly("Key ring");
+        assertThat(suggestions.suggest("keys", null, 10)).isEmpty();
+    }
+
+    @Test
+    public void suggest_FollowsProductChanges() {
+        ProductSuggestions suggestions = suggestions(KEYBOARD, KEY_RING);
+
+        suggestions.on(new ProductChange.Created(KEY));
+        suggestions.on(new ProductChange.Removed(3L));
+
+        assertThat(suggestions.suggest("key", null, 10)).extracting(ProductSuggestion::id).containsExactly(2L, 1L);
+
+        suggestions.on(new ProductChange.CategoryRemoved(CategoryType.SPORT));
+
+        assertThat(suggestions.suggest("key", null, 10)).extracting(ProductSuggestion::id).containsExactly(2L);
+        assertThat(suggestions.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void radixTrie_SplitsAndMergesEdges() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        List.of("romane", "romanus", "romulus", "rubens", "ruber", "rubicon", "rubicundus", "rom")
+                .forEach(word -> trie.put(word, word));
+
+        assertThat(trie.prefixed("r", 10)).containsExactly("rom", "romane", "romanus", "romulus", "rubens", "ruber", "rubicon", "rubicundus");
+        assertThat(trie.prefixed("rub", 2)).containsExactly("rubens", "ruber");
+        assertThat(trie.prefixed("romanx", 10)).isEmpty();
+
+        assertThat(trie.remove("rom", "rom")).isTrue();
+        assertThat(trie.remove("romanus", "romanus")).isTrue();
+        assertThat(trie.remove("roman", "roman")).isFalse();
+
+        assertThat(trie.prefixed("rom", 10)).containsExactly("romane", "romulus");
+        assertThat(trie.prefixed("romane", 10)).containsExactly("romane");
+        assertThat(trie.size()).isEqualTo(6);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductSuggestions suggestions(Product... products) {
+        doAnswer(invocation -> {
+            List.of(products).forEach(invocation.<Consumer<Product>>getArgument(1));
+            return null;
+        }).when(jdbcRepository).stream(any(), any(Consumer.class));
+
+        ProductSuggestions suggestions = new ProductSuggestions(jdbcRepository, true);
+        suggestions.rebuild();
+        return suggestions;
+    }
+
+    private static Product product(Long id, String name, CategoryType category) {
+        return new Product(id, name, "", category, 1L, new BigDecimal("1.00"));
+    }
+}
@@ -0,0 +1,180 @@
+package com.products.singleflight;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.products.domain.Product;
+import com.products.domain.ProductCache;
+import com.products.domain.ProductJdbcRepository;
+import com.products.domain.ProductOutbox;
+import com.products.domain.ProductRepository;
+import com.products.domain.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request coalescing unit tests
+ */
+public class SingleFlightTest {
+    private static final int FOLLOWERS = 3;
+
+    private MeterRegistry registry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+    }
+
+    @Test
+    public void execute_ConcurrentCallsWithSameKey_ShareOneCall() throws Exception {
+        SingleFlight flights = new SingleFlight(registry, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        SingleFlight.Call call = () -> {
+            calls.incrementAndGet();
+            release.await();
+            return "result";
+        };
+
+        List<Future<Object>> results = runConcurrently(() -> flights.execute("get", "key", call), release);
+
+        for (Future<Object> result : results) {
+            assertThat(result.get()).isEqualTo("result");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(flights.inFlight()).isZero();
+        assertThat(count("get", SingleFlight.LEADER)).isEqualTo(1);
+        assertThat(count("get", SingleFlight.COALESCED)).isEqualTo(FOLLOWERS);
+    }
+
+    @Test
+    public void execute_WhenLeaderFails_SharesTheException() throws Throwable {
+        SingleFlight flights = new SingleFlight(registry, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlight.Call call = () -> {
+            release.await();
+            throw new IllegalStateException("database down");
+        };
+
+        List<Future<Object>> results = runConcurrently(() -> flights.execute("get", "key", call), release);
+
+        for (Future<Object> result : results) {
+            assertThatThrownBy(result::get).hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(flights.execute("get", "key", () -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    public void execute_WhenWaitTimesOut_RunsOwnCall() throws Throwable {
+        SingleFlight flights = new SingleFlight(registry, Duration.ofMillis(10));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = executor.submit(() -> {
+            try {
+                return flights.execute("get", "key", () -> {
+                    release.await();
+                    return "slow";
+                });
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (flights.inFlight() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(flights.execute("get", "key", () -> "own")).isEqualTo("own");
+        release.countDown();
+        assertThat(leader.get()).isEqualTo("slow");
+        assertThat(count("get", SingleFlight.TIMED_OUT)).isEqualTo(1);
+    }
+
+    @Test
+    public void coalescedServiceReads_WithSameArguments_HitRepositoryOnce() throws Exception {
+        ProductRepository repository = mock(ProductRepository.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findPage(any(), anyLong(), any())).thenAnswer(invocation -> {
+            release.await();
+            return List.of(P1, P2);
+        });
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ProductService(repository, mock(ProductJdbcRepository.class),
+                new ProductCache(100, Duration.ofMinutes(1)), mock(ProductOutbox.class), mock(ApplicationEventPublisher.class)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new SingleFlightAspect(registry, Duration.ofSeconds(5)));
+        ProductService service = factory.getProxy();
+
+        List<Future<List<Product>>> results = runConcurrently(() -> service.list("product", null), release);
+
+        for (Future<List<Product>> result : results) {
+            assertThat(result.get()).containsExactly(P1, P2);
+        }
+        verify(repository, times(1)).findPage(any(), anyLong(), any());
+        assertThat(count("list", SingleFlight.COALESCED)).isEqualTo(FOLLOWERS);
+    }
+
+    /**
+     * Starts a leader, then followers once it is inside the call, and releases the leader when all
+     * followers are waiting for it.
+     */
+    private <T> List<Future<T>> runConcurrently(ThrowingSupplier<T> task, CountDownLatch release) throws InterruptedException {
+        List<Thread> waiting = new ArrayList<>();
+        List<Future<T>> results = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(FOLLOWERS + 1);
+
+        for (int i = 0; i <= FOLLOWERS; i++) {
+            results.add(executor.submit(() -> {
+                synchronized (waiting) {
+                    waiting.add(Thread.currentThread());
+                }
+                started.countDown();
+                try {
+                    return task.get();
+                } catch (Exception ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+        }
+
+        started.await();
+        // The leader waits on the latch, every follower on the leader's future (with a timeout).
+        while (waiting.stream().filter(thread -> thread.getState() == Thread.State.TIMED_WAITING).count() < FOLLOWERS
+                || waiting.stream().noneMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        return results;
+    }
+
+    private double count(String operation, String call) {
+        return registry.counter("products.single-flight", "operation", operation, "call", call).count();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier<T> {
+        T get() throws Throwable;
+    }
+}
@@ -0,0 +1,78 @@
+package com.products.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+/**
+ * Admission control unit tests
+ */
+public class AdmissionControlFilterTest {
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ofMillis(10));
+
+    @Test
+    public void filter_WithFreeSlot_AdmitsAndReleasesRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/1"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void filter_WhenPoolIsBusy_ReturnsServiceUnavailable() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/1"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/products/2"), rejected, new MockFilterChain()));
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void filter_WithAsyncResponse_HoldsSlotUntilCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/stream");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(filter.availablePermits()).isZero();
+
+        request.getAsyncContext().complete();
+
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void filter_WithOpenChangeStreams_StillAdmitsRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/products/changes");
+            stream.setAsyncSupported(true);
+            filter.doFilter(stream, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/1"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void filter_OutsideProducts_IsNotLimited() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+                (request, ignored) -> filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain()));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,90 @@
+package com.products.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.products.domain.LookupRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Load shedding unit tests, with room for one read and one write
+ */
+public class ConcurrencyLimitInterceptorTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(registry, 1, 10, 1, 10, 1, 10);
+
+    @Test
+    public void preHandle_OverWriteLimit_ShedsWritesOnly() throws Exception {
+        MockHttpServletRequest write = new MockHttpServletRequest("DELETE", "/products/1");
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(write, new MockHttpServletResponse(), handler("remove", Long.class))).isTrue();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("POST", "/products"), shed, handler("remove", Long.class))).isFalse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/products/1"), new MockHttpServletResponse(),
+                handler("getProductById", Long.class, WebRequest.class))).isTrue();
+
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(registry.get("products.concurrency.shed").tag("group", "write").counter().count()).isEqualTo(1);
+        assertThat(registry.get("products.concurrency.shed").tag("group", "read").counter().count()).isZero();
+        assertThat(registry.get("products.concurrency.limit").tag("group", "write").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void afterCompletion_ReleasesSlotOnce() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler("getProductById", Long.class, WebRequest.class));
+        assertThat(interceptor.readLimit().inFlight()).isEqualTo(1);
+
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(interceptor.readLimit().inFlight()).isZero();
+    }
+
+    @Test
+    public void afterCompletion_WithServerError_BacksOff() throws Exception {
+        ConcurrencyLimitInterceptor roomy = new ConcurrencyLimitInterceptor(new SimpleMeterRegistry(), 20, 100, 20, 100, 1, 10);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        roomy.preHandle(request, response, handler("remove", Long.class));
+        response.setStatus(500);
+        roomy.afterCompletion(request, response, null, null);
+
+        assertThat(roomy.writeLimit().limit()).isEqualTo(18);
+    }
+
+    @Test
+    public void preHandle_ReadSentAsPost_CountsAsRead() throws Exception {
+        MockHttpServletRequest lookup = new MockHttpServletRequest("POST", "/products/lookup");
+
+        assertThat(interceptor.preHandle(lookup, new MockHttpServletResponse(), handler("lookup", LookupRequest.class))).isTrue();
+
+        assertThat(interceptor.readLimit().inFlight()).isEqualTo(1);
+        assertThat(interceptor.writeLimit().inFlight()).isZero();
+    }
+
+    @Test
+    public void preHandle_OtherControllers_AreNotLimited() throws Exception {
+        HandlerMethod other = new HandlerMethod(mock(ProductChangeController.class),
+                ProductChangeController.class.getMethod("changes", Long.class, Long.class));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/products/changes"),
+                    new MockHttpServletResponse(), other)).isTrue();
+        }
+        assertThat(interceptor.readLimit().inFlight()).isZero();
+    }
+
+    private static HandlerMethod handler(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return new HandlerMethod(mock(ProductController.class), ProductController.class.getMethod(name, parameterTypes));
+    }
+}
@@ -0,0 +1,76 @@
+package com.products.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive concurrency limit unit tests, with windows of ten requests all in flight at once
+ */
+public class ConcurrencyLimitTest {
+    private static final int WINDOW = 10;
+
+    private final ConcurrencyLimit limit = new ConcurrencyLimit(10, 2, 100, WINDOW);
+
+    @Test
+    public void tryAcquire_OverLimit_Rejects() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.inFlight()).isEqualTo(10);
+    }
+
+    @Test
+    public void release_WithSteadyLatency_GrowsLimit() {
+        window(10);
+        window(10);
+
+        assertThat(limit.limit()).isGreaterThan(10);
+    }
+
+    @Test
+    public void release_WhenLatencyRises_ShrinksLimit() {
+        for (int i = 0; i < 5; i++) {
+            window(10);
+        }
+        int grown = limit.limit();
+
+        window(100);
+        window(100);
+
+        assertThat(limit.limit()).isLessThan(grown);
+    }
+
+    @Test
+    public void release_WhenOverloaded_BacksOff() {
+        limit.tryAcquire();
+        limit.release(0, true);
+
+        assertThat(limit.limit()).isEqualTo((int) (10 * ConcurrencyLimit.BACKOFF));
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    public void release_WhenLimitIsUnused_DoesNotGrow() {
+        for (int i = 0; i < 3 * WINDOW; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    private void window(long latencyMillis) {
+        int acquired = 0;
+        while (acquired < WINDOW && limit.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.release(TimeUnit.MILLISECONDS.toNanos(latencyMillis), false);
+        }
+    }
+}
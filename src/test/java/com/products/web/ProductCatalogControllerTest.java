@@ -0,0 +1,164 @@
+package com.products.web;
+
+import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.products.domain.BatchError;
+import com.products.domain.BatchResult;
+import com.products.domain.MalformedProductException;
+import com.products.domain.Product;
+import com.products.domain.ProductBatchService;
+import com.products.domain.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Web layer x Catalog export/import integration tests
+ */
+@WebMvcTest(ProductCatalogController.class)
+public class ProductCatalogControllerTest {
+    private static final String CSV = """
+            id,name,description,category,quantity,price
+            1,Product 001,Product 001 description.,AUTOMOTIVE,10,100.00
+            2,Product 002,Product 002 description.,HEALTH,many,200.00
+            3,"Product 003, large","Product 003 description.",SPORT,30,300.00
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService service;
+
+    @MockBean
+    private ProductBatchService batchService;
+
+    @Test
+    public void exportProducts_AsCsv_StreamsHeaderAndRows() throws Exception {
+        streamProducts(P1, P2);
+
+        MvcResult result = mockMvc.perform(get("/products/export").accept(ProductCatalogController.TEXT_CSV))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ProductCatalogController.TEXT_CSV))
+                .andExpect(content().string("""
+                        id,name,description,category,quantity,price
+                        1,"Product 001","Product 001 description.",AUTOMOTIVE,10,100.00
+                        2,"Product 002","Product 002 description.",HEALTH,20,200.00
+                        """));
+    }
+
+    @Test
+    public void exportProducts_AsNdjsonWithGzip_CompressesBody() throws Exception {
+        streamProducts(P1, P2);
+
+        MvcResult result = mockMvc.perform(get("/products/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult dispatched = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        String body = gunzip(dispatched.getResponse().getContentAsByteArray());
+        assertThat(body.lines()).hasSize(2);
+        assertThat(body.lines().findFirst()).hasValueSatisfying(line -> assertThat(line).contains("\"name\":\"Product 001\""));
+    }
+
+    @Test
+    public void importProducts_FromCsv_ReportsUnreadableRows() throws Exception {
+        List<Product> received = new ArrayList<>();
+        doAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            List<BatchError> errors = new ArrayList<>();
+            for (int index = 0; products.hasNext(); index++) {
+                try {
+                    received.add(products.next());
+                } catch (MalformedProductException ex) {
+                    errors.add(new BatchError(index, null, BatchError.Reason.MALFORMED, ex.getMessage()));
+                }
+            }
+            return new BatchResult(received.size(), errors.size(), errors, false);
+        }).when(batchService).createAll(any());
+
+        mockMvc.perform(post("/products/import")
+                        .contentType(ProductCatalogController.TEXT_CSV)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(CSV)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].reason").value("MALFORMED"));
+
+        assertThat(received).extracting(Product::getName).containsExactly("Product 001", "Product 003, large");
+        assertThat(received.get(1).getPrice()).isEqualByComparingTo("300.00");
+    }
+
+    @Test
+    public void importProducts_FromNdjson_PassesRowsToBatch() throws Exception {
+        when(batchService.createAll(any())).thenReturn(new BatchResult(1, 0, List.of(), false));
+
+        mockMvc.perform(post("/products/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Product 001\",\"description\":\"d\",\"category\":\"SPORT\",\"quantity\":1,\"price\":1.00}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamProducts(Product... products) {
+        doAnswer(invocation -> {
+            List.of(products).forEach(invocation.<Consumer<Product>>getArgument(2));
+            return null;
+        }).when(service).stream(isNull(), isNull(), any(Consumer.class));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.products.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.products.domain.CategoryType;
+import com.products.domain.ProductChangeRecord;
+import com.products.domain.ProductOutbox;
+import com.products.outbox.ProductChangeStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Web layer x Change stream integration tests
+ */
+@WebMvcTest(controllers = ProductChangeController.class, properties = "products.outbox.stream.buffer-size=10")
+@Import(ProductChangeStream.class)
+public class ProductChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductChangeStream stream;
+
+    @MockBean
+    private ProductOutbox outbox;
+
+    @Test
+    public void streamChanges_SinceSequence_SendsBacklogThenLiveRecords() throws Exception {
+        when(outbox.findAfter(5, 500)).thenReturn(List.of(removed(6)));
+
+        MvcResult result = mockMvc.perform(get("/products/changes").param("since", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        stream.publish(List.of(new ProductChangeRecord(7, ProductChangeRecord.Type.CATEGORY_REMOVED, null,
+                CategoryType.SPORT, null, Instant.EPOCH)));
+
+        String body = awaitBody(result, "id:7");
+        assertThat(body).contains("id:6\nevent:REMOVED\ndata:{\"sequence\":6,\"type\":\"REMOVED\",\"productId\":6");
+        assertThat(body.indexOf("id:7")).isGreaterThan(body.indexOf("id:6"));
+        assertThat(body).contains("\"category\":\"SPORT\"");
+    }
+
+    @Test
+    public void streamChanges_WithLastEventId_ResumesAfterIt() throws Exception {
+        when(outbox.findAfter(9, 500)).thenReturn(List.of(removed(10)));
+
+        MvcResult result = mockMvc.perform(get("/products/changes").header("Last-Event-ID", "9"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(awaitBody(result, "id:10")).contains("id:10");
+    }
+
+    @Test
+    public void streamChanges_LiveRecordCoveredByBacklog_IsSentOnce() throws Exception {
+        when(outbox.findAfter(5, 500)).thenReturn(List.of(removed(6)));
+
+        MvcResult result = mockMvc.perform(get("/products/changes").param("since", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        stream.publish(List.of(removed(6), removed(7)));
+
+        String body = awaitBody(result, "id:7");
+        assertThat(body.indexOf("id:6")).isEqualTo(body.lastIndexOf("id:6"));
+    }
+
+    @Test
+    public void streamChanges_WhenBufferOverflows_CompletesSoTheClientResumes() throws Exception {
+        MvcResult result = mockMvc.perform(get("/products/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        List<ProductChangeRecord> burst = new ArrayList<>();
+        for (long sequence = 1; sequence <= 1_000; sequence++) {
+            burst.add(removed(sequence));
+        }
+        stream.publish(burst);
+
+        // Completed normally, so the client reconnects rather than giving up.
+        assertThat(result.getAsyncResult(5_000)).isNull();
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("id:1000\n");
+    }
+
+    private static String awaitBody(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    private static ProductChangeRecord removed(long sequence) {
+        return new ProductChangeRecord(sequence, ProductChangeRecord.Type.REMOVED, sequence, null, null, Instant.EPOCH);
+    }
+}
@@ -1,32 +1,68 @@
 package com.products.web;
 
 import static com.products.mock.ProductMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.products.domain.BatchError;
+import com.products.domain.BatchResult;
+import com.products.domain.CategoryFacet;
 import com.products.domain.CategoryType;
+import com.products.domain.DeleteResult;
+import com.products.domain.InsufficientStockException;
+import com.products.domain.InvalidRequestException;
+import com.products.domain.LookupRequest;
+import com.products.domain.PageCursor;
 import com.products.domain.Product;
+import com.products.domain.ProductBatchService;
+import com.products.domain.ProductField;
+import com.products.domain.ProductLookup;
+import com.products.domain.ProductPage;
 import com.products.domain.ProductService;
+import com.products.domain.ProductVersion;
+import com.products.domain.ProductView;
+import com.products.domain.StockService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Web layer x Controllers integration tests
@@ -34,6 +70,7 @@ import java.util.Optional;
  * @RafaGuedes
  */
 @WebMvcTest(ProductController.class)
+@Import(WireFormatConfiguration.class)
 public class ProductControllerTest {
 
     @Autowired
@@ -45,6 +82,12 @@ public class ProductControllerTest {
     @MockBean
     private ProductService service;
 
+    @MockBean
+    private ProductBatchService batchService;
+
+    @MockBean
+    private StockService stockService;
+
     @Test
     public void createProduct_WithValidData_ReturnsCreated() throws Exception {
         when(service.create(PRODUCT)).thenReturn(PRODUCT);
@@ -82,6 +125,50 @@ public class ProductControllerTest {
 
     }
 
+    @Test
+    public void createProducts_WithJsonArrayOrNdjson_ReturnsBatchResult() throws Exception {
+        List<String> received = new ArrayList<>();
+        when(batchService.createAll(any())).thenAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            products.forEachRemaining(product -> received.add(product.getName()));
+            return new BatchResult(1, 1, List.of(new BatchError(1, P2.getName(), BatchError.Reason.CONFLICT, "exists")), false);
+        });
+
+        mockMvc.perform(post("/products/batch")
+                        .content(objectMapper.writeValueAsString(List.of(P1, P2)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].reason").value("CONFLICT"));
+
+        mockMvc.perform(post("/products/batch")
+                        .content(objectMapper.writeValueAsString(P1) + "\n" + objectMapper.writeValueAsString(P2) + "\n")
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk());
+
+        assertThat(received).containsExactly(P1.getName(), P2.getName(), P1.getName(), P2.getName());
+    }
+
+    @Test
+    public void createProducts_WithSyntaxError_ReturnsPartialResult() throws Exception {
+        when(batchService.createAll(any())).thenAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            assertThat(products.next().getName()).isEqualTo(P1.getName());
+            assertThatThrownBy(() -> products.forEachRemaining(product -> { }))
+                    .isExactlyInstanceOf(InvalidRequestException.class);
+            return new BatchResult(1, 0, List.of(new BatchError(1, null, BatchError.Reason.UNREADABLE, "unreadable")), true);
+        });
+
+        mockMvc.perform(post("/products/batch")
+                        .content("[" + objectMapper.writeValueAsString(P1) + ", {\"name\": ")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.truncated").value(true))
+                .andExpect(jsonPath("$.errors[0].reason").value("UNREADABLE"));
+    }
+
     @Test
     public void getProduct_ByExistingId_ReturnsProduct() throws Exception {
         when(service.get(P1.getId())).thenReturn(Optional.of(P1));
@@ -92,6 +179,65 @@ public class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void listProducts_WithBinaryAccept_ReturnsSmileOrCbor() throws Exception {
+        when(service.list(null, null)).thenReturn(PRODUCTS);
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        byte[] body = mockMvc.perform(get("/products").accept(smile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<Product> products = new ObjectMapper(new SmileFactory()).readValue(body, new TypeReference<>() { });
+
+        assertThat(products).extracting(Product::getName).containsExactly(P1.getName(), P2.getName(), P3.getName());
+        assertThat(body.length).isLessThan(objectMapper.writeValueAsBytes(PRODUCTS).length);
+
+        mockMvc.perform(get("/products").accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
+    @Test
+    public void getProduct_WithVersion_ReturnsETag() throws Exception {
+        Product product = new Product(1L, "Product 01", "Product description.", CategoryType.AUTOMOTIVE, 10L, new BigDecimal("100"));
+        product.setVersion(2L);
+        when(service.get(1L)).thenReturn(Optional.of(product));
+
+        mockMvc.perform(get("/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-2\""));
+    }
+
+    @Test
+    public void getProduct_WithMatchingETag_ReturnsNotModifiedWithoutLoading() throws Exception {
+        when(service.version(1L)).thenReturn(Optional.of(new ProductVersion(1L, 2L)));
+        when(service.versionByName(P1.getName())).thenReturn(Optional.of(new ProductVersion(1L, 2L)));
+
+        mockMvc.perform(get("/products/1").header("If-None-Match", "W/\"1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"1-2\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/products/name/" + P1.getName()).header("If-None-Match", "W/\"1-2\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).get(any());
+        verify(service, never()).getByName(any());
+    }
+
+    @Test
+    public void getProduct_WithStaleETag_ReturnsProduct() throws Exception {
+        Product product = new Product(1L, "Product 01", "Product description.", CategoryType.AUTOMOTIVE, 10L, new BigDecimal("100"));
+        product.setVersion(3L);
+        when(service.version(1L)).thenReturn(Optional.of(new ProductVersion(1L, 3L)));
+        when(service.get(1L)).thenReturn(Optional.of(product));
+
+        mockMvc.perform(get("/products/1").header("If-None-Match", "W/\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-3\""));
+    }
+
     @Test
     public void getProduct_ByUnexistingId_ReturnsEmpty() throws Exception {
         when(service.get(99246579109999L)).thenReturn(Optional.empty());
@@ -138,6 +284,134 @@ public class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void listProducts_WithMatchingETag_ReturnsNotModified() throws Exception {
+        when(service.list(null, null)).thenReturn(PRODUCTS);
+
+        String etag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/products").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        when(service.list(null, null)).thenReturn(List.of(P1, P2));
+        mockMvc.perform(get("/products").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void listProductsPage_EachPageHasItsOwnETag() throws Exception {
+        when(service.list(null, null, null, 1)).thenReturn(new ProductPage<>(List.of(P1), PageCursor.encode(P1.getId())));
+        when(service.list(null, null, PageCursor.encode(P1.getId()), 1)).thenReturn(new ProductPage<>(List.of(P2), null));
+
+        String first = mockMvc.perform(get("/products").param("limit", "1"))
+                .andReturn().getResponse().getHeader("ETag");
+        String second = mockMvc.perform(get("/products").param("limit", "1").param("cursor", PageCursor.encode(P1.getId())))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(first).isNotNull().isNotEqualTo(second);
+        mockMvc.perform(get("/products").param("limit", "1").header("If-None-Match", first))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void getFacets_ReturnsPerCategoryAggregates() throws Exception {
+        when(service.facets("product 001")).thenReturn(List.of(new CategoryFacet(CategoryType.AUTOMOTIVE, 1,
+                new BigDecimal("100.00"), new BigDecimal("100.00"), new BigDecimal("100.00"), 10)));
+
+        mockMvc.perform(get("/products/facets").param("name", "product 001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category").value("AUTOMOTIVE"))
+                .andExpect(jsonPath("$[0].count").value(1))
+                .andExpect(jsonPath("$[0].avgPrice").value(100.0))
+                .andExpect(jsonPath("$[0].totalQuantity").value(10));
+    }
+
+    @Test
+    public void listProductsPage_WithMoreRows_ReturnsNextLink() throws Exception {
+        String next = PageCursor.encode(P2.getId());
+        when(service.list(null, null, null, 2)).thenReturn(new ProductPage<>(List.of(P1, P2), next));
+
+        mockMvc.perform(get("/products").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("Link", "<http://localhost/products?limit=2&cursor=" + next + ">; rel=\"next\""));
+    }
+
+    @Test
+    public void listProducts_WithFields_ReturnsOnlySelectedFields() throws Exception {
+        Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE);
+        when(service.list(null, null, fields)).thenReturn(List.of(new ProductView(1L, "Product 001", null, null, null, new BigDecimal("100.00"))));
+        when(service.list(null, null, fields, null, 1)).thenReturn(new ProductPage<>(
+                List.of(new ProductView(1L, "Product 001", null, null, null, new BigDecimal("100.00"))), PageCursor.encode(1L)));
+
+        mockMvc.perform(get("/products").param("fields", "name,price"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":1,\"name\":\"Product 001\",\"price\":100.00}]", true));
+
+        mockMvc.perform(get("/products").param("fields", "name,price").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(header().exists("Link"));
+    }
+
+    @Test
+    public void getProduct_WithFields_ReturnsOnlySelectedFields() throws Exception {
+        when(service.get(1L, EnumSet.of(ProductField.ID, ProductField.CATEGORY)))
+                .thenReturn(Optional.of(new ProductView(1L, null, null, CategoryType.SPORT, null, null)));
+
+        mockMvc.perform(get("/products/1").param("fields", "category"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"category\":\"SPORT\"}", true));
+
+        mockMvc.perform(get("/products/name/x").param("fields", "category"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/products/1").param("fields", "weight"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void listProductsPage_WithInvalidCursor_ReturnsBadRequest() throws Exception {
+        when(service.list(isNull(), isNull(), eq("???"), any(Integer.class)))
+                .thenThrow(new InvalidRequestException("Invalid cursor: ???"));
+
+        mockMvc.perform(get("/products").param("cursor", "???"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void listProductsPage_WithUnexpectedIllegalArgument_IsNotBadRequest() {
+        when(service.list(isNull(), isNull(), isNull(), any(Integer.class)))
+                .thenThrow(new IllegalArgumentException("internal"));
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/products").param("limit", "10")))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void streamProducts_ReturnsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Product> action = invocation.getArgument(2);
+            PRODUCTS.forEach(action);
+            return null;
+        }).when(service).stream(isNull(), isNull(), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/products").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(P1) + "\n"
+                                + objectMapper.writeValueAsString(P2) + "\n"
+                                + objectMapper.writeValueAsString(P3) + "\n"));
+    }
+
     @Test
     public void removeProduct_WithExistingId_ReturnsNoContent() throws Exception {
         mockMvc.perform(delete("/products/1"))
@@ -154,4 +428,63 @@ public class ProductControllerTest {
         mockMvc.perform(delete("/products/" + productId))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void removeProducts_ByIdsOrCategory_ReturnsDeletedCount() throws Exception {
+        when(service.removeAll(List.of(1L, 2L))).thenReturn(new DeleteResult(2));
+        when(service.removeAll(CategoryType.SPORT)).thenReturn(new DeleteResult(5));
+
+        mockMvc.perform(delete("/products").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        mockMvc.perform(delete("/products").param("category", "SPORT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(5));
+    }
+
+    @Test
+    public void lookupProducts_ByIdsOrBody_ReturnsProductsAndMisses() throws Exception {
+        when(service.lookup(new LookupRequest(List.of(2L, 9L), null)))
+                .thenReturn(new ProductLookup(List.of(P2), List.of(9L), List.of()));
+        when(service.lookup(new LookupRequest(List.of(1L), List.of("Product 003"))))
+                .thenReturn(new ProductLookup(List.of(P1, P3), List.of(), List.of()));
+
+        mockMvc.perform(get("/products").param("ids", "2,9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(2))
+                .andExpect(jsonPath("$.missingIds[0]").value(9));
+
+        mockMvc.perform(post("/products/lookup")
+                        .content("{\"ids\":[1],\"names\":[\"Product 003\"]}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(2)))
+                .andExpect(jsonPath("$.missingNames", hasSize(0)));
+    }
+
+    @Test
+    public void reserveProduct_ReturnsNoContentOrConflict() throws Exception {
+        doThrow(new InsufficientStockException(2L, 5)).when(stockService).reserve(2L, 5);
+        doThrow(new InvalidRequestException("amount must be at least 1")).when(stockService).reserve(1L, 0);
+
+        mockMvc.perform(post("/products/1/reserve").param("amount", "5"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/products/2/reserve").param("amount", "5"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/products/1/reserve").param("amount", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(stockService).reserve(1L, 5);
+    }
+
+    @Test
+    public void releaseProduct_ReturnsNoContentOrNotFound() throws Exception {
+        doThrow(new EmptyResultDataAccessException(1)).when(stockService).release(99L, 1);
+
+        mockMvc.perform(post("/products/1/release"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/products/99/release"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,75 @@
+package com.products.web;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.products.domain.CategoryType;
+import com.products.search.ProductHit;
+import com.products.search.ProductSearchIndex;
+import com.products.search.ProductSuggestion;
+import com.products.search.ProductSuggestions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+/**
+ * Web layer x Search controller integration tests
+ */
+@WebMvcTest(ProductSearchController.class)
+public class ProductSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductSearchIndex index;
+
+    @MockBean
+    private ProductSuggestions suggestions;
+
+    @Test
+    public void searchProducts_ReturnsRankedHits() throws Exception {
+        when(index.search("key", CategoryType.SPORT, 20))
+                .thenReturn(List.of(new ProductHit(2L, "Key ring", CategoryType.SPORT, 3.0)));
+
+        mockMvc.perform(get("/products/search").param("q", "key").param("category", "SPORT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].score").value(3.0));
+    }
+
+    @Test
+    public void searchProducts_WithBlankQueryOrBadLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/products/search").param("q", "key").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void suggestProducts_ReturnsCompletions() throws Exception {
+        when(suggestions.suggest("Ke", null, 10))
+                .thenReturn(List.of(new ProductSuggestion(2L, "Key ring", CategoryType.SPORT)));
+
+        mockMvc.perform(get("/products/suggest").param("prefix", "Ke"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].name").value("Key ring"));
+    }
+
+    @Test
+    public void suggestProducts_WithBlankPrefixOrBadLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/products/suggest").param("prefix", ""))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/products/suggest").param("prefix", "k").param("limit", "51"))
+                .andExpect(status().isBadRequest());
+    }
+}
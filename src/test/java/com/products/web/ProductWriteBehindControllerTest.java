@@ -0,0 +1,123 @@
+package com.products.web;
+
+import static com.products.mock.ProductMock.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.products.domain.ProductBatchService;
+import com.products.domain.ProductCreation;
+import com.products.domain.ProductService;
+import com.products.domain.ProductWriteBehind;
+import com.products.domain.StockService;
+import com.products.domain.WriteBehindFullException;
+import com.products.domain.WriteBehindTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+/**
+ * Web layer tests of product creation with write-behind enabled
+ */
+@WebMvcTest(ProductController.class)
+public class ProductWriteBehindControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ProductService service;
+
+    @MockBean
+    private ProductBatchService batchService;
+
+    @MockBean
+    private StockService stockService;
+
+    @MockBean
+    private ProductWriteBehind writeBehind;
+
+    @Test
+    public void createProduct_PreferRespondAsync_ReturnsAccepted() throws Exception {
+        when(writeBehind.submit(any())).thenReturn(new ProductCreation("abc", ProductCreation.State.PENDING, null, null));
+
+        mockMvc.perform(post("/products")
+                        .header("Prefer", "respond-async")
+                        .content(objectMapper.writeValueAsString(PRODUCT))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/products/creations/abc"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.trackingId").value("abc"))
+                .andExpect(jsonPath("$.state").value("PENDING"));
+    }
+
+    @Test
+    public void createProduct_WithoutPreference_WaitsForCommit() throws Exception {
+        when(writeBehind.create(any())).thenReturn(P1).thenThrow(new DataIntegrityViolationException("taken"));
+
+        mockMvc.perform(post("/products")
+                        .content(objectMapper.writeValueAsString(PRODUCT))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(P1.getId()));
+
+        mockMvc.perform(post("/products")
+                        .content(objectMapper.writeValueAsString(PRODUCT))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void createProduct_WhenQueueIsFull_ReturnsServiceUnavailable() throws Exception {
+        when(writeBehind.submit(any())).thenThrow(new WriteBehindFullException("full"));
+
+        mockMvc.perform(post("/products")
+                        .header("Prefer", "respond-async")
+                        .content(objectMapper.writeValueAsString(PRODUCT))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    public void createProduct_WhenNotCommittedInTime_ReturnsServiceUnavailableWithTrackingUrl() throws Exception {
+        when(writeBehind.create(any())).thenThrow(new WriteBehindTimeoutException("not committed yet", "abc"));
+
+        mockMvc.perform(post("/products")
+                        .header("Prefer", "return=minimal")
+                        .content(objectMapper.writeValueAsString(PRODUCT))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(header().string("Location", "http://localhost/products/creations/abc"));
+    }
+
+    @Test
+    public void getCreation_ReturnsStateOrNotFound() throws Exception {
+        when(writeBehind.status("abc")).thenReturn(Optional.of(new ProductCreation("abc", ProductCreation.State.CREATED, P1, null)));
+        when(writeBehind.status("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/products/creations/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CREATED"))
+                .andExpect(jsonPath("$.product.id").value(P1.getId()));
+
+        mockMvc.perform(get("/products/creations/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
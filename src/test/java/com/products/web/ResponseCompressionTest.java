@@ -0,0 +1,69 @@
+package com.products.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Response compression on the embedded Tomcat, which skips responses carrying a strong ETag
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compression;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=" })
+public class ResponseCompressionTest {
+    private static final int ROWS = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void beforeEach() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            rows.add(new Object[] { "Compressed " + i, "Compressed " + i + " description, long enough to add up.", i });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, description, category, quantity, price, version) "
+                + "VALUES (?, ?, 'SPORT', ?, 1.00, 0)", rows);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    public void listProducts_WithGzipAccepted_IsCompressed() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products?limit=100"))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .build();
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).contains("gzip");
+        assertThat(response.headers().firstValue("ETag")).get().asString().startsWith("W/");
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(body.readAllBytes().length).isGreaterThan(2048);
+        }
+    }
+}
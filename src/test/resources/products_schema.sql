@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH 100) PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    name_key VARCHAR(255) GENERATED ALWAYS AS (LOWER(name)),
+    description VARCHAR(255) NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    quantity BIGINT NOT NULL,
+    price NUMERIC(38, 2) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+);